@@ -0,0 +1,89 @@
+package com.server.benchmarks.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.entity.Category;
+import com.server.productservice.domain.entity.Product;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic data shaped like the seeded catalogue, so runs on different commits compare.
+final class ProductFixtures {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final List<Category> CATEGORIES = List.of(
+            Category.builder().id(1L).name("Books").description("Printed and digital books").build(),
+            Category.builder().id(2L).name("Games").description("Board and video games").build(),
+            Category.builder().id(3L).name("Electronics").description("Phones, laptops and accessories").build());
+
+    private ProductFixtures() {
+    }
+
+    // the ObjectMapper Spring Boot configures for the service, minus modules it does not use here
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    static Product product(long id) {
+        SplittableRandom random = new SplittableRandom(id);
+        int stock = random.nextInt(0, 50);
+        Product product = Product.builder()
+                .id(id)
+                .code("P" + id)
+                .name("Product " + id)
+                .description("Description of product " + id + " with enough text to look like a real listing")
+                .price(price(random))
+                .imageUrl("https://cdn.example.com/products/P" + id + ".jpg")
+                .stockQuantity(stock)
+                .available(stock > 0)
+                .version(random.nextLong(0, 20))
+                .category(CATEGORIES.get((int) (id % CATEGORIES.size())))
+                .build();
+        product.setCreatedAt(UPDATED_AT);
+        product.setUpdatedAt(UPDATED_AT.plusSeconds(id));
+        return product;
+    }
+
+    static List<Product> products(int size) {
+        List<Product> products = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            products.add(product(id));
+        }
+        return products;
+    }
+
+    static List<ProductResponse> responses(int size) {
+        List<ProductResponse> responses = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Product product = product(id);
+            responses.add(ProductResponse.builder()
+                    .id(product.getId())
+                    .productCode(product.getCode())
+                    .name(product.getName())
+                    .description(product.getDescription())
+                    .price(product.getPrice())
+                    .imageUrl(product.getImageUrl())
+                    .category(product.getCategory().getName())
+                    .categoryId(product.getCategory().getId())
+                    .stockQuantity(product.getStockQuantity())
+                    .available(product.getAvailable())
+                    .version(product.getVersion())
+                    .updatedAt(product.getUpdatedAt())
+                    .build());
+        }
+        return responses;
+    }
+
+    // two decimals, mostly below 1000, the way catalogue prices are entered
+    static BigDecimal price(SplittableRandom random) {
+        return BigDecimal.valueOf(random.nextLong(99, 150_000), 2);
+    }
+}
@@ -0,0 +1,123 @@
+package com.server.benchmarks.product;
+
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.entity.Category;
+import com.server.productservice.domain.entity.Product;
+import com.server.productservice.domain.mapper.ProductMapper;
+import com.server.productservice.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// A product listing read through the real ProductRepository: loading entities and mapping
+// them (one extra select per category the page touches) against the constructor-expression
+// projection the service uses. Runs on in-memory H2 by default; point jdbcUrl at a scratch
+// PostgreSQL database for numbers that mean something (its tables are dropped and recreated).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductListingQueryBenchmark {
+
+    private static final int CATEGORIES = 20;
+
+    @Param({"jdbc:h2:mem:listing;DB_CLOSE_DELAY=-1"})
+    private String jdbcUrl;
+
+    @Param({"sa"})
+    private String username;
+
+    @Param({""})
+    private String password;
+
+    @Param({"1000"})
+    private int size;
+
+    private final ProductMapper mapper = new ProductMapper();
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private ProductRepository repository;
+
+    @Setup
+    public void setUp() {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(new DriverManagerDataSource(jdbcUrl, username, password));
+        factory.setPackagesToScan("com.server.productservice.domain.entity");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        // the column naming Spring Boot applies to the service
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        for (int c = 0; c < CATEGORIES; c++) {
+            Category category = Category.builder().name("Category " + c).build();
+            entityManager.persist(category);
+            for (int p = c; p < size; p += CATEGORIES) {
+                entityManager.persist(Product.builder()
+                        .code("P" + p)
+                        .name("Product " + p)
+                        .description("Description of product " + p + " with enough text to look like a real listing")
+                        .price(BigDecimal.valueOf(1000 + p, 2))
+                        .imageUrl("https://cdn.example.com/products/P" + p + ".jpg")
+                        .stockQuantity(p % 50)
+                        .available(p % 50 > 0)
+                        .category(category)
+                        .build());
+            }
+        }
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+
+        repository = new JpaRepositoryFactory(entityManager).getRepository(ProductRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    // every invocation starts from an empty persistence context, as a request does
+    @Benchmark
+    public List<ProductResponse> entityPath() {
+        entityManager.clear();
+        return repository.findAll(Sort.by("id")).stream()
+                .map(mapper::mapToProductResponse)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ProductResponse> projectionPath() {
+        entityManager.clear();
+        return repository.findResponsePageAfter(0L, Limit.of(size));
+    }
+}
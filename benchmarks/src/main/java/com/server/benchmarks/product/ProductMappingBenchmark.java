@@ -0,0 +1,61 @@
+package com.server.benchmarks.product;
+
+import com.server.productservice.domain.dto.request.ProductRequest;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.entity.Product;
+import com.server.productservice.domain.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    @Param({"1000"})
+    private int size;
+
+    private final ProductMapper mapper = new ProductMapper();
+    private List<Product> products;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        products = ProductFixtures.products(size);
+        product = products.get(size / 2);
+    }
+
+    @Benchmark
+    public ProductResponse mapToProductResponse() {
+        return mapper.mapToProductResponse(product);
+    }
+
+    @Benchmark
+    public ProductRequest maProductRequest() {
+        return mapper.maProductRequest(product);
+    }
+
+    // a listing page worth of entities, as the service maps them after a write or a page load
+    @Benchmark
+    public void mapToProductResponseList(Blackhole blackhole) {
+        for (Product each : products) {
+            blackhole.consume(mapper.mapToProductResponse(each));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.server.benchmarks.product;
+
+import com.server.productservice.domain.dto.request.ProductPatchRequest;
+import com.server.productservice.repository.ProductBulkRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The bulk price/stock patch at 50k rows: the single unnest join the service uses against
+// one JDBC-batched UPDATE per row. Runs on in-memory H2 by default; point jdbcUrl at a
+// scratch PostgreSQL database for numbers that mean something (the products table there
+// is dropped and recreated).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ProductPatchBenchmark {
+
+    private static final String CREATE_PRODUCTS = """
+            create table products (
+                id bigint primary key,
+                code varchar(255) not null unique,
+                price numeric(10, 2) not null,
+                stock_quantity integer not null,
+                available boolean not null,
+                version bigint not null,
+                updated_at timestamp
+            )
+            """;
+
+    private static final String UPDATE_PRODUCT = """
+            update products
+               set price = coalesce(cast(? as numeric), price),
+                   stock_quantity = coalesce(cast(? as integer), stock_quantity),
+                   available = coalesce(cast(? as integer), stock_quantity) > 0,
+                   updated_at = current_timestamp,
+                   version = version + 1
+             where code = ?
+            """;
+
+    @Param({"jdbc:h2:mem:patch;DB_CLOSE_DELAY=-1"})
+    private String jdbcUrl;
+
+    @Param({"sa"})
+    private String username;
+
+    @Param({""})
+    private String password;
+
+    @Param({"50000"})
+    private int size;
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductBulkRepository repository;
+    // two patch sets applied in turn, so every invocation really changes every row
+    private List<List<ProductPatchRequest>> patches;
+    private int round;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(jdbcUrl, username, password);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new ProductBulkRepository(new NamedParameterJdbcTemplate(jdbcTemplate));
+
+        jdbcTemplate.execute("drop table if exists products");
+        jdbcTemplate.execute(CREATE_PRODUCTS);
+        List<Object[]> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(new Object[]{(long) i + 1, "P" + i, BigDecimal.valueOf(1000 + i, 2), i % 50, i % 50 > 0});
+        }
+        jdbcTemplate.batchUpdate("insert into products (id, code, price, stock_quantity, available, version) "
+                + "values (?, ?, ?, ?, ?, 0)", rows);
+
+        patches = List.of(patchSet(1), patchSet(2));
+    }
+
+    @Benchmark
+    public int unnestJoin() {
+        return repository.patchProducts(nextPatchSet());
+    }
+
+    @Benchmark
+    public int batchedRowUpdates() {
+        List<Object[]> args = nextPatchSet().stream()
+                .map(patch -> new Object[]{patch.getPrice(), patch.getStockQuantity(), patch.getStockQuantity(),
+                        patch.getProductCode()})
+                .toList();
+        return jdbcTemplate.batchUpdate(UPDATE_PRODUCT, args).length;
+    }
+
+    private List<ProductPatchRequest> nextPatchSet() {
+        return patches.get(round++ % patches.size());
+    }
+
+    // the usual mix: a third reprices, a third restocks, a third does both
+    private List<ProductPatchRequest> patchSet(int seed) {
+        List<ProductPatchRequest> patchSet = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            patchSet.add(ProductPatchRequest.builder()
+                    .productCode("P" + i)
+                    .price(i % 3 == 2 ? null : BigDecimal.valueOf(2000 + i * 10L + seed, 2))
+                    .stockQuantity(i % 3 == 0 ? null : 100 + seed)
+                    .build());
+        }
+        return patchSet;
+    }
+}
@@ -0,0 +1,90 @@
+package com.server.benchmarks.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.productservice.domain.dto.request.ProductRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Price handling on the import and faceting paths: CSV text and NDJSON numbers into
+// BigDecimal, writing it back out, and finding a price's facet bucket.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductPriceBenchmark {
+
+    // product.query.price-buckets defaults
+    private static final List<BigDecimal> PRICE_BUCKETS = List.of(
+            new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"),
+            new BigDecimal("250"), new BigDecimal("500"), new BigDecimal("1000"));
+
+    private ObjectMapper objectMapper;
+    private BigDecimal price;
+    private String priceText;
+    private Map<String, String> csvRecord;
+    private String ndjsonLine;
+
+    @Setup
+    public void setUp() {
+        objectMapper = ProductFixtures.objectMapper();
+        price = ProductFixtures.price(new SplittableRandom(42));
+        priceText = price.toPlainString();
+        csvRecord = Map.of("productCode", "P42", "name", "Product 42", "price", priceText,
+                "categoryId", "1", "stockQuantity", "7");
+        ndjsonLine = "{\"productCode\":\"P42\",\"name\":\"Product 42\",\"price\":" + priceText
+                + ",\"categoryId\":1,\"stockQuantity\":7}";
+    }
+
+    @Benchmark
+    public BigDecimal parsePrice() {
+        return new BigDecimal(priceText);
+    }
+
+    // CSV import: every column arrives as text and is converted onto ProductRequest
+    @Benchmark
+    public ProductRequest convertCsvRecord() {
+        return objectMapper.convertValue(csvRecord, ProductRequest.class);
+    }
+
+    // NDJSON import: the price is a JSON number
+    @Benchmark
+    public ProductRequest readNdjsonLine() throws IOException {
+        return objectMapper.readValue(ndjsonLine, ProductRequest.class);
+    }
+
+    @Benchmark
+    public String writePrice() throws IOException {
+        return objectMapper.writeValueAsString(price);
+    }
+
+    @Benchmark
+    public int priceBucket() {
+        int bucket = 0;
+        while (bucket < PRICE_BUCKETS.size() && price.compareTo(PRICE_BUCKETS.get(bucket)) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    @Benchmark
+    public BigDecimal lineTotal() {
+        return price.multiply(BigDecimal.valueOf(3));
+    }
+}
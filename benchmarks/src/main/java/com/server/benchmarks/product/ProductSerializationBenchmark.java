@@ -0,0 +1,104 @@
+package com.server.benchmarks.product;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductSerializationBenchmark {
+
+    private static final TypeReference<List<ProductResponse>> PRODUCT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+    private List<ProductResponse> products;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = ProductFixtures.objectMapper();
+        listWriter = objectMapper.writerFor(PRODUCT_LIST);
+        listReader = objectMapper.readerFor(PRODUCT_LIST);
+        products = ProductFixtures.responses(size);
+        json = listWriter.writeValueAsBytes(products);
+    }
+
+    // what the listing cache stores: the whole array encoded once
+    @Benchmark
+    public byte[] writeListAsBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    // same, through a writer bound to the list type
+    @Benchmark
+    public byte[] writeListWithTypedWriter() throws IOException {
+        return listWriter.writeValueAsBytes(products);
+    }
+
+    // the NDJSON stream endpoint: one element at a time into the response body
+    @Benchmark
+    public void writeNdjsonStream(Blackhole blackhole) throws IOException {
+        OutputStream out = new BlackholeOutputStream(blackhole);
+        ObjectWriter writer = objectMapper.writerFor(ProductResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        for (ProductResponse product : products) {
+            writer.writeValue(out, product);
+            out.write('\n');
+        }
+    }
+
+    @Benchmark
+    public List<ProductResponse> readList() throws IOException {
+        return listReader.readValue(json);
+    }
+
+    private static final class BlackholeOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        private BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.server.cartservice.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.server.cartservice.client.ProductCallMetrics;
+import com.server.cartservice.client.ProductClient;
+import com.server.cartservice.client.ProductClientFallback;
+import com.server.cartservice.config.ProductCacheProperties;
+import com.server.cartservice.domain.dto.external.ProductAvailabilityDto;
+import com.server.cartservice.domain.dto.external.ProductEventDto;
+import com.server.cartservice.domain.dto.external.ProductLineDto;
+import com.server.cartservice.domain.enums.ProductEventType;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Product name, price and stock as product-service last reported them, keyed by code.
+// A snapshot is served as is while fresh; once stale it is still served while a background
+// reload replaces it, and it is dropped for good after expire-after. Product change events
+// invalidate a code as soon as it changes. The stock figure is a hint: it is checked against
+// one unit and no cart's holds, so callers re-check with product-service before refusing a line.
+@Slf4j
+@Component
+public class ProductSnapshotCache {
+
+    private final ProductClient productClient;
+    private final ProductClientFallback productClientFallback;
+    private final ProductCallMetrics productCallMetrics;
+    private final LoadingCache<String, ProductAvailabilityDto> snapshots;
+
+    public ProductSnapshotCache(ProductCacheProperties properties, ProductClient productClient,
+            ProductClientFallback productClientFallback, ProductCallMetrics productCallMetrics,
+            MeterRegistry meterRegistry) {
+        this.productClient = productClient;
+        this.productClientFallback = productClientFallback;
+        this.productCallMetrics = productCallMetrics;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .refreshAfterWrite(properties.getFreshFor())
+                .expireAfterWrite(properties.getExpireAfter())
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public ProductAvailabilityDto load(String productCode) {
+                        return fetch(Set.of(productCode)).get(productCode);
+                    }
+
+                    @Override
+                    public Map<String, ProductAvailabilityDto> loadAll(Set<? extends String> productCodes) {
+                        return fetch(productCodes);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "productSnapshots");
+    }
+
+    // null when product-service does not know the code
+    public ProductAvailabilityDto get(String productCode) {
+        return getAll(List.of(productCode)).get(productCode);
+    }
+
+    // With the circuit open the last known snapshots answer, as long as there is one for every code;
+    // a code without one could not be told apart from an unknown product.
+    public Map<String, ProductAvailabilityDto> getAll(Collection<String> productCodes) {
+        try {
+            return snapshots.getAll(productCodes);
+        } catch (CallNotPermittedException e) {
+            List<ProductLineDto> lines = productCodes.stream()
+                    .distinct()
+                    .map(code -> new ProductLineDto(code, 1))
+                    .toList();
+            Map<String, ProductAvailabilityDto> lastKnown = productClientFallback.checkLines(lines, null).stream()
+                    .collect(Collectors.toMap(ProductAvailabilityDto::getProductCode, Function.identity()));
+            if (lastKnown.size() < lines.size()) {
+                throw e;
+            }
+            return lastKnown;
+        }
+    }
+
+    public void apply(ProductEventDto event) {
+        if (event.getType() == ProductEventType.PATCHED) {
+            if (event.getProducts() != null) {
+                event.getProducts().forEach(this::apply);
+            }
+            return;
+        }
+        snapshots.invalidate(event.getProductCode());
+        if (event.getType() == ProductEventType.DELETED) {
+            productClientFallback.forget(event.getProductCode());
+        } else {
+            productClientFallback.apply(event);
+        }
+    }
+
+    private Map<String, ProductAvailabilityDto> fetch(Set<? extends String> productCodes) {
+        log.debug("Loading product snapshots: {}", productCodes);
+        List<ProductLineDto> lines = productCodes.stream()
+                .map(code -> new ProductLineDto(code, 1))
+                .toList();
+        Map<String, ProductAvailabilityDto> loaded = productCallMetrics.record("snapshot",
+                        () -> productClient.checkLines(lines, null))
+                .stream()
+                .filter(ProductAvailabilityDto::isFound)
+                .collect(Collectors.toMap(ProductAvailabilityDto::getProductCode, Function.identity()));
+        loaded.values().forEach(productClientFallback::remember);
+        return loaded;
+    }
+}
@@ -0,0 +1,34 @@
+package com.server.cartservice.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// Latency of each product-service call as product.client.requests, tagged with the call
+// and the exception it ended with ("none" on success).
+@Component
+@RequiredArgsConstructor
+public class ProductCallMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> T record(String call, Supplier<T> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return request.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("product.client.requests")
+                    .tag("call", call)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
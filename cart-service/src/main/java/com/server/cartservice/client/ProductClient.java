@@ -1,23 +1,22 @@
 package com.server.cartservice.client;
 
-import com.server.cartservice.domain.dto.external.ProductDto;
+import com.server.cartservice.domain.dto.external.ProductAvailabilityDto;
+import com.server.cartservice.domain.dto.external.ProductLineDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(name = "product-service", fallback = ProductClientFallback.class, url = "${application.config.product-url}")
 public interface ProductClient {
 
-    @GetMapping("/{productCode}")
-    @CircuitBreaker(name = "productService", fallbackMethod = "getProductFallback")
-    @Retry(name = "productService")
-    ProductDto getProduct(@PathVariable("productCode") String productCode);
-
-    @GetMapping("/{productCode}/availability")
+    // Name, price and availability of each line in one request. Not retried: the client
+    // timeouts configured for product-service are the whole budget of a cart operation.
+    @PostMapping("/availability")
     @CircuitBreaker(name = "productService")
-    @Retry(name = "productService")
-    Boolean checkAvailability(@PathVariable("productCode") String productCode, @RequestParam("quantity") int quantity);
+    List<ProductAvailabilityDto> checkLines(@RequestBody List<ProductLineDto> lines,
+                                            @RequestParam(value = "cartId", required = false) Long cartId);
 }
@@ -1,31 +1,77 @@
 package com.server.cartservice.client;
 
-import com.server.cartservice.domain.dto.external.ProductDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.server.cartservice.config.ProductCacheProperties;
+import com.server.cartservice.domain.dto.external.ProductAvailabilityDto;
+import com.server.cartservice.domain.dto.external.ProductEventDto;
+import com.server.cartservice.domain.dto.external.ProductLineDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
 
+// Answers from the last snapshot product-service gave for each product, kept current by the
+// product change events. Products never seen are left out, so callers cannot validate them.
 @Slf4j
 @Component
 public class ProductClientFallback implements ProductClient {
 
-    @Override
-    public ProductDto getProduct(String productCode) {
-        log.warn("Fallback: Product Service unavailable for product: {}", productCode);
-        return ProductDto.builder()
-                .productCode(productCode)
-                .name("Product temporarily unavailable")
-                .description("Please try again later")
-                .price(BigDecimal.ZERO)
-                .available(false)
-                .stockQuantity(0)
+    private final Cache<String, ProductAvailabilityDto> lastKnown;
+
+    public ProductClientFallback(ProductCacheProperties properties) {
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(properties.getLastKnownSize())
                 .build();
     }
 
     @Override
-    public Boolean checkAvailability(String productCode, int quantity) {
-        log.warn("Fallback: Product Service unavailable for availability check: {}", productCode);
-        return false;
+    public List<ProductAvailabilityDto> checkLines(List<ProductLineDto> lines, Long cartId) {
+        log.warn("Fallback: Product Service unavailable, answering {} lines from last known snapshots", lines.size());
+        return lines.stream()
+                .map(line -> {
+                    ProductAvailabilityDto snapshot = lastKnown.getIfPresent(line.getProductCode());
+                    return snapshot == null ? null : ProductAvailabilityDto.builder()
+                            .productCode(snapshot.getProductCode())
+                            .name(snapshot.getName())
+                            .price(snapshot.getPrice())
+                            .imageUrl(snapshot.getImageUrl())
+                            .quantity(line.getQuantity())
+                            .stockQuantity(snapshot.getStockQuantity())
+                            .found(true)
+                            .available(snapshot.isAvailable() && snapshot.getStockQuantity() >= line.getQuantity())
+                            .version(snapshot.getVersion())
+                            .build();
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public void remember(ProductAvailabilityDto snapshot) {
+        lastKnown.put(snapshot.getProductCode(), snapshot);
+    }
+
+    public void forget(String productCode) {
+        lastKnown.invalidate(productCode);
+    }
+
+    // events carry price and stock but not the name, so only a snapshot we already hold is updated
+    public void apply(ProductEventDto event) {
+        lastKnown.asMap().computeIfPresent(event.getProductCode(), (code, snapshot) ->
+                snapshot.getVersion() != null && event.getVersion() != null
+                        && event.getVersion() <= snapshot.getVersion()
+                        ? snapshot
+                        : ProductAvailabilityDto.builder()
+                                .productCode(code)
+                                .name(snapshot.getName())
+                                .price(event.getPrice())
+                                .imageUrl(snapshot.getImageUrl())
+                                .quantity(snapshot.getQuantity())
+                                .stockQuantity(event.getStockQuantity())
+                                .found(true)
+                                .available(Boolean.TRUE.equals(event.getAvailable()))
+                                .version(event.getVersion())
+                                .build());
     }
 }
@@ -0,0 +1,21 @@
+package com.server.cartservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cart.product-cache")
+public class ProductCacheProperties {
+
+    private long maximumSize = 10000;
+    // served as is while younger than this
+    private Duration freshFor = Duration.ofMinutes(5);
+    // older snapshots are still served while a background reload runs; past this they are dropped
+    private Duration expireAfter = Duration.ofMinutes(30);
+    // last known snapshots kept for the circuit-open fallback, independent of the TTLs above
+    private long lastKnownSize = 50000;
+}
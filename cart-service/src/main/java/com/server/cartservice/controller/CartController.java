@@ -2,15 +2,20 @@ package com.server.cartservice.controller;
 
 import com.server.cartservice.domain.dto.request.AddLineRequest;
 import com.server.cartservice.domain.dto.request.UpdateQuantityRequest;
+import com.server.cartservice.domain.dto.response.AddLinesResponse;
 import com.server.cartservice.domain.dto.response.CartResponse;
 import com.server.cartservice.service.CartService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 
 @Slf4j
 @RestController
@@ -34,6 +39,14 @@ public class CartController {
         return ResponseEntity.ok(cart);
     }
 
+    @PostMapping("/{cartId}/lines/bulk")
+    public ResponseEntity<AddLinesResponse> addLines(@PathVariable Long cartId,
+                                                     @RequestBody @NotEmpty @Size(max = 100) List<@Valid AddLineRequest> requests) {
+        log.info("REST request to add {} lines to cart {}", requests.size(), cartId);
+        AddLinesResponse response = cartService.addLines(cartId, requests);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{cartId}")
     public ResponseEntity<CartResponse> getCart(@PathVariable Long cartId) {
         log.info("REST request to get cart: {}", cartId);
@@ -0,0 +1,24 @@
+package com.server.cartservice.domain.dto.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAvailabilityDto {
+    private String productCode;
+    private String name;
+    private BigDecimal price;
+    private String imageUrl;
+    private int quantity;
+    private int stockQuantity;
+    private boolean found;
+    private boolean available;
+    private Long version;
+}
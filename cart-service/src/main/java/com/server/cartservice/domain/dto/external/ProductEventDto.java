@@ -0,0 +1,26 @@
+package com.server.cartservice.domain.dto.external;
+
+import com.server.cartservice.domain.enums.ProductEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// what product-service publishes on product-events for every catalog write
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductEventDto {
+    private ProductEventType type;
+    private String productCode;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private Boolean available;
+    private Long version;
+    // only on PATCHED: one UPDATED entry per product of a bulk write
+    private List<ProductEventDto> products;
+}
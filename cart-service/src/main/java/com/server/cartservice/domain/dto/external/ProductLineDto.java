@@ -0,0 +1,15 @@
+package com.server.cartservice.domain.dto.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductLineDto {
+    private String productCode;
+    private Integer quantity;
+}
@@ -0,0 +1,18 @@
+package com.server.cartservice.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddLineResult {
+    private String productCode;
+    private int quantity;
+    private boolean added;
+    // why the line was not added; null when it was
+    private String reason;
+}
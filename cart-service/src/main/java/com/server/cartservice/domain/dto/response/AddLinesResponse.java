@@ -0,0 +1,20 @@
+package com.server.cartservice.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddLinesResponse {
+    private CartResponse cart;
+    private int added;
+    private int rejected;
+    // one per requested line, in request order
+    private List<AddLineResult> results;
+}
@@ -8,7 +8,10 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Entity
@@ -35,42 +38,79 @@ public class Cart implements Serializable {
     private LocalDateTime updatedAt;
     private LocalDateTime expiresAt;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    @JoinColumn(name = "cart_id")
+    @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Builder.Default
     private List<CartLine> cartLines = new ArrayList<>();
 
 
+    // Lines by product code plus the running item count, built from cartLines on first use and
+    // moved by each change after that, so mutations and totals never rescan the lines.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient Map<String, CartLine> linesByCode;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient int totalItems;
+
+    public List<CartLine> getCartLines() {
+        return Collections.unmodifiableList(cartLines);
+    }
+
+    public void setCartLines(List<CartLine> cartLines) {
+        cartLines.forEach(line -> line.setCart(this));
+        this.cartLines = cartLines;
+        this.linesByCode = null;
+    }
+
+    public CartLine getLine(String productCode) {
+        return lines().get(productCode);
+    }
+
     public void addLine(CartLine newLine) {
-        CartLine existingItem = cartLines.stream()
-                .filter(item -> item.getProductCode().equals(newLine.getProductCode()))
-                .findFirst()
-                .orElse(null);
+        mergeLine(newLine);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void addLines(List<CartLine> newLines) {
+        newLines.forEach(this::mergeLine);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    private void mergeLine(CartLine newLine) {
+        CartLine existingItem = lines().get(newLine.getProductCode());
 
         if (existingItem != null) {
-            int newQuantity = existingItem.getQuantity() + newLine.getQuantity();
-            existingItem.setQuantity(newQuantity);
+            setQuantity(existingItem, existingItem.getQuantity() + newLine.getQuantity());
         } else {
+            newLine.setCart(this);
             this.cartLines.add(newLine);
+            this.linesByCode.put(newLine.getProductCode(), newLine);
+            this.totalItems += newLine.getQuantity();
+            this.subtotal = this.subtotal.add(newLine.getLineTotal());
+            this.totalPrice = this.subtotal;
         }
-        this.updatedAt = LocalDateTime.now();
-        calculateTotals();
     }
 
     public void removeLine(String productCode) {
-        this.cartLines.removeIf(item -> item.getProductCode().equals(productCode));
+        CartLine removedLine = lines().remove(productCode);
+        if (removedLine != null) {
+            this.cartLines.remove(removedLine);
+            this.totalItems -= removedLine.getQuantity();
+            this.subtotal = this.subtotal.subtract(removedLine.getLineTotal());
+            this.totalPrice = this.subtotal;
+        }
         this.updatedAt = LocalDateTime.now();
-        calculateTotals();
     }
 
     public void updateLineQuantity(String productCode, int quantity) {
-        CartLine updatedLine =  cartLines.stream()
-                .filter(item -> item.getProductCode().equals(productCode))
-                .findFirst()
-                .orElse(null);
+        CartLine updatedLine = lines().get(productCode);
         if (updatedLine != null) {
-            updatedLine.setQuantity(quantity);
+            setQuantity(updatedLine, quantity);
             this.updatedAt = LocalDateTime.now();
-            calculateTotals();
         }
     }
 
@@ -80,22 +120,41 @@ public class Cart implements Serializable {
         calculateTotals();
     }
 
+    // Full recompute; rebuilds the index and the running totals from the lines.
     public void calculateTotals() {
-        BigDecimal cumul = BigDecimal.ZERO;
+        this.linesByCode = null;
+        lines();
+    }
 
-        if (cartLines != null) {
-            for (CartLine line : cartLines) {
-                BigDecimal montantLigne = line.getLineTotal();
-                cumul = cumul.add(montantLigne);
-            }
-        }
-        this.subtotal = cumul;
+    public int getTotalLines() {
+        lines();
+        return totalItems;
+    }
+
+    // moves the running totals by the difference between the old and the new line total
+    private void setQuantity(CartLine line, int quantity) {
+        BigDecimal oldLineTotal = line.getLineTotal();
+        this.totalItems += quantity - line.getQuantity();
+        line.setQuantity(quantity);
+        this.subtotal = this.subtotal.subtract(oldLineTotal).add(line.getLineTotal());
         this.totalPrice = this.subtotal;
     }
 
-    public int getTotalLines() {
-        return cartLines.stream()
-                .mapToInt(CartLine::getQuantity)
-                .sum();
+    private Map<String, CartLine> lines() {
+        if (linesByCode == null) {
+            Map<String, CartLine> index = new HashMap<>();
+            int items = 0;
+            BigDecimal cumul = BigDecimal.ZERO;
+            for (CartLine line : cartLines) {
+                index.putIfAbsent(line.getProductCode(), line);
+                items += line.getQuantity();
+                cumul = cumul.add(line.getLineTotal());
+            }
+            this.linesByCode = index;
+            this.totalItems = items;
+            this.subtotal = cumul;
+            this.totalPrice = this.subtotal;
+        }
+        return linesByCode;
     }
 }
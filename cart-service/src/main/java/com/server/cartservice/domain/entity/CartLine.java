@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -17,10 +19,22 @@ import java.math.BigDecimal;
 @Table(name = "cart_lines")
 public class CartLine implements Serializable {
 
+    public static final String ID_SEQUENCE = "cart_lines_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // sequence ids let Hibernate batch the inserts of new lines; identity ids cannot be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_lines_seq")
+    @SequenceGenerator(name = "cart_lines_seq", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    // owning side, so cart_id goes out with the insert instead of a separate update
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cart_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Cart cart;
+
     private String productCode;
     private String name;
     private String imageUrl;
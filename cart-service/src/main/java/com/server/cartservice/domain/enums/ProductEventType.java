@@ -0,0 +1,8 @@
+package com.server.cartservice.domain.enums;
+
+public enum ProductEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    PATCHED
+}
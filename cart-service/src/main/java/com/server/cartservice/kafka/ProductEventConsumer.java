@@ -0,0 +1,24 @@
+package com.server.cartservice.kafka;
+
+import com.server.cartservice.cache.ProductSnapshotCache;
+import com.server.cartservice.domain.dto.external.ProductEventDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductEventConsumer {
+
+    private final ProductSnapshotCache productSnapshotCache;
+
+    // every instance keeps its own snapshots, so each one needs every event: one stable group per instance
+    @KafkaListener(topics = "product-events", groupId = "${cart.product-events.group-id}")
+    public void consumeProductEvent(ProductEventDto event) {
+        log.debug("Received product event: {} {}", event.getType(),
+                event.getProducts() == null ? event.getProductCode() : event.getProducts().size() + " products");
+        productSnapshotCache.apply(event);
+    }
+}
@@ -0,0 +1,28 @@
+package com.server.cartservice.repository;
+
+import com.server.cartservice.domain.entity.CartLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class CartLineSequenceRepository {
+
+    private static final String SELECT_MAX_ID = "select coalesce(max(id), 0) from cart_lines";
+
+    private static final String NEXT_ID = "select nextval('" + CartLine.ID_SEQUENCE + "')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Lines created while ids came from an identity column can sit above the
+    // sequence; move it past them so the first allocated block is free.
+    public void alignIdSequence() {
+        long maxId = jdbcTemplate.queryForObject(SELECT_MAX_ID, Long.class);
+        long hi = jdbcTemplate.queryForObject(NEXT_ID, Long.class);
+        if (hi - CartLine.ID_ALLOCATION_SIZE < maxId) {
+            jdbcTemplate.execute(
+                    "alter sequence " + CartLine.ID_SEQUENCE + " restart with " + (maxId + CartLine.ID_ALLOCATION_SIZE));
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.server.cartservice.service;
 
 import com.server.cartservice.domain.dto.request.AddLineRequest;
 import com.server.cartservice.domain.dto.request.UpdateQuantityRequest;
+import com.server.cartservice.domain.dto.response.AddLinesResponse;
 import com.server.cartservice.domain.dto.response.CartResponse;
 
+import java.util.List;
+
 public interface CartService {
 
     CartResponse createCart(Long userId);
@@ -12,6 +15,8 @@ public interface CartService {
 
     CartResponse addLine(Long cartId, AddLineRequest request);
 
+    AddLinesResponse addLines(Long cartId, List<AddLineRequest> requests);
+
     CartResponse updateLineQuantity(Long cartId, String productCode, UpdateQuantityRequest request);
 
     CartResponse removeLine(Long cartId, String productCode);
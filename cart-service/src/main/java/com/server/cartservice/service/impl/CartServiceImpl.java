@@ -1,25 +1,40 @@
 package com.server.cartservice.service.impl;
 
+import com.server.cartservice.cache.ProductSnapshotCache;
+import com.server.cartservice.client.ProductCallMetrics;
 import com.server.cartservice.client.ProductClient;
-import com.server.cartservice.domain.dto.external.ProductDto;
+import com.server.cartservice.domain.dto.external.ProductAvailabilityDto;
+import com.server.cartservice.domain.dto.external.ProductLineDto;
 import com.server.cartservice.domain.dto.request.AddLineRequest;
 import com.server.cartservice.domain.dto.request.UpdateQuantityRequest;
+import com.server.cartservice.domain.dto.response.AddLineResult;
+import com.server.cartservice.domain.dto.response.AddLinesResponse;
 import com.server.cartservice.domain.dto.response.CartResponse;
 import com.server.cartservice.domain.entity.Cart;
 import com.server.cartservice.domain.entity.CartLine;
 import com.server.cartservice.exception.CartNotFoundException;
 import com.server.cartservice.exception.InvalidCartOperationException;
 import com.server.cartservice.domain.mapper.CartMapper;
+import com.server.cartservice.repository.CartLineSequenceRepository;
 import com.server.cartservice.repository.CartRepository;
 import com.server.cartservice.service.CartService;
 import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -35,6 +50,14 @@ public class CartServiceImpl implements CartService {
     private final CartRepository cartRepository;
     private final CartMapper cartMapper;
     private final ProductClient productClient;
+    private final ProductCallMetrics productCallMetrics;
+    private final ProductSnapshotCache productSnapshotCache;
+    private final CartLineSequenceRepository cartLineSequenceRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alignLineIdSequence() {
+        cartLineSequenceRepository.alignIdSequence();
+    }
 
     @Override
     @Transactional
@@ -71,10 +94,8 @@ public class CartServiceImpl implements CartService {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
 
-        ProductDto product = validateProduct(request.getProductCode());
-
-        boolean isAvailable = validateAvailability(request.getProductCode(), request.getQuantity());
-        if (!isAvailable) {
+        ProductAvailabilityDto product = validateLine(cartId, request.getProductCode(), request.getQuantity());
+        if (!product.isAvailable()) {
             throw new InvalidCartOperationException(
                     "Product " + request.getProductCode() + " is not available in requested quantity");
         }
@@ -101,31 +122,85 @@ public class CartServiceImpl implements CartService {
         return cartMapper.mapToResponse(savedCart);
     }
 
+    // Validates every line in one go, applies the accepted ones to the cart together and saves
+    // once. A code listed more than once is checked for its quantities together.
     @Override
     @Transactional
-    public CartResponse updateLineQuantity(Long cartId, String productCode, UpdateQuantityRequest request) {
-        log.info("Updating line quantity in cart {}: productCode={}, newQuantity={}", cartId, productCode, request.getQuantity());
+    public AddLinesResponse addLines(Long cartId, List<AddLineRequest> requests) {
+        log.info("Adding {} lines to cart {}", requests.size(), cartId);
 
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
 
-        // Validation via Catalog
-        boolean isAvailable = validateAvailability(productCode, request.getQuantity());
-        if (!isAvailable) {
-            throw new InvalidCartOperationException("Product not available in requested quantity");
-        }
+        Map<String, Integer> quantitiesByCode = requests.stream()
+                .collect(Collectors.toMap(AddLineRequest::getProductCode, AddLineRequest::getQuantity,
+                        Integer::sum, LinkedHashMap::new));
+        Map<String, ProductAvailabilityDto> products = validateLines(cartId, quantitiesByCode);
+
+        List<AddLineResult> results = new ArrayList<>(requests.size());
+        List<CartLine> accepted = new ArrayList<>();
+        int totalLines = cart.getTotalLines();
+        for (AddLineRequest request : requests) {
+            ProductAvailabilityDto product = products.get(request.getProductCode());
+            String rejection = null;
+            if (product == null) {
+                rejection = "Product not found";
+            } else if (!product.isAvailable()) {
+                rejection = "Not available in requested quantity";
+            } else if (totalLines + request.getQuantity() > maxLines) {
+                rejection = "Cart limit of " + maxLines + " reached";
+            }
 
-        boolean productExists = false;
-        for (CartLine item : cart.getCartLines()) {
-            if (item.getProductCode().equals(productCode)) {
-                productExists = true;
-                break;
+            if (rejection == null) {
+                totalLines += request.getQuantity();
+                accepted.add(CartLine.builder()
+                        .productCode(product.getProductCode())
+                        .name(product.getName())
+                        .imageUrl(product.getImageUrl())
+                        .quantity(request.getQuantity())
+                        .unitPrice(product.getPrice())
+                        .available(true)
+                        .build());
             }
+            results.add(AddLineResult.builder()
+                    .productCode(request.getProductCode())
+                    .quantity(request.getQuantity())
+                    .added(rejection == null)
+                    .reason(rejection)
+                    .build());
+        }
+
+        if (!accepted.isEmpty()) {
+            cart.addLines(accepted);
+            cart = cartRepository.save(cart);
         }
-        if (!productExists) {
+        log.info("Added {} of {} lines to cart {}", accepted.size(), requests.size(), cartId);
+
+        return AddLinesResponse.builder()
+                .cart(cartMapper.mapToResponse(cart))
+                .added(accepted.size())
+                .rejected(requests.size() - accepted.size())
+                .results(results)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public CartResponse updateLineQuantity(Long cartId, String productCode, UpdateQuantityRequest request) {
+        log.info("Updating line quantity in cart {}: productCode={}, newQuantity={}", cartId, productCode, request.getQuantity());
+
+        Cart cart = cartRepository.findById(cartId)
+                .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
+
+        if (cart.getLine(productCode) == null) {
             throw new InvalidCartOperationException("Product not found in cart: " + productCode);
         }
 
+        // Validation via Catalog
+        if (!validateLine(cartId, productCode, request.getQuantity()).isAvailable()) {
+            throw new InvalidCartOperationException("Product not available in requested quantity");
+        }
+
         cart.updateLineQuantity(productCode, request.getQuantity());
 
         Cart savedCart = cartRepository.save(cart);
@@ -178,30 +253,63 @@ public class CartServiceImpl implements CartService {
         log.info("Cart deleted successfully: {}", cartId);
     }
 
-    private ProductDto validateProduct(String productCode) {
-        try {
-            log.debug("Validating product via Catalog Service: {}", productCode);
-            ProductDto product = productClient.getProduct(productCode);
-            log.debug("Product validated: {}", product.getName());
-            return product;
-        } catch (FeignException.NotFound e) {
+    private ProductAvailabilityDto validateLine(Long cartId, String productCode, int quantity) {
+        ProductAvailabilityDto product = validateLines(cartId, Map.of(productCode, quantity)).get(productCode);
+        if (product == null) {
             log.error("Product not found in catalog: {}", productCode);
             throw new InvalidCartOperationException("Product not found: " + productCode);
-        } catch (FeignException e) {
+        }
+        return product;
+    }
+
+    // Name, price and stock come from the local snapshots, loaded in one call for the codes not
+    // cached. A snapshot that looks short of stock may be stale or miss this cart's own holds, so
+    // those lines are re-checked together with product-service before any is refused.
+    // Unknown codes are left out of the result.
+    private Map<String, ProductAvailabilityDto> validateLines(Long cartId, Map<String, Integer> quantitiesByCode) {
+        Map<String, ProductAvailabilityDto> snapshots;
+        try {
+            snapshots = productSnapshotCache.getAll(quantitiesByCode.keySet());
+        } catch (FeignException | CallNotPermittedException e) {
             log.error("Error communicating with Catalog Service: {}", e.getMessage());
-            throw new InvalidCartOperationException(
-                    "Unable to validate product. Please try again later.");
+            throw new InvalidCartOperationException("Unable to validate product. Please try again later.");
         }
+
+        Map<String, ProductAvailabilityDto> validated = new HashMap<>();
+        Map<String, Integer> recheck = new LinkedHashMap<>();
+        snapshots.forEach((code, snapshot) -> {
+            int quantity = quantitiesByCode.get(code);
+            if (snapshot.isAvailable() && snapshot.getStockQuantity() >= quantity) {
+                validated.put(code, snapshot);
+            } else {
+                recheck.put(code, quantity);
+            }
+        });
+        if (!recheck.isEmpty()) {
+            checkLines(cartId, recheck).forEach(product -> validated.put(product.getProductCode(), product));
+        }
+        return validated;
     }
 
-    private boolean validateAvailability(String productCode, int quantity) {
+    // Existence, name, price and stock of the lines in one product-service call
+    private List<ProductAvailabilityDto> checkLines(Long cartId, Map<String, Integer> quantitiesByCode) {
+        List<ProductLineDto> lines = quantitiesByCode.entrySet().stream()
+                .map(line -> new ProductLineDto(line.getKey(), line.getValue()))
+                .toList();
+        List<ProductAvailabilityDto> checked;
         try {
-            log.debug("Checking availability: productCode={}, quantity={}", productCode, quantity);
-            return productClient.checkAvailability(productCode, quantity);
-        } catch (FeignException e) {
-            log.error("Error checking availability: {}", e.getMessage());
-            // En cas d'erreur, on refuse l'ajout (fail-safe)
-            return false;
+            log.debug("Validating {} lines via Catalog Service", lines.size());
+            checked = productCallMetrics.record("availability", () -> productClient.checkLines(lines, cartId));
+        } catch (FeignException | CallNotPermittedException e) {
+            log.error("Error communicating with Catalog Service: {}", e.getMessage());
+            throw new InvalidCartOperationException("Unable to validate product. Please try again later.");
         }
+        if (checked.size() < lines.size()) {
+            throw new InvalidCartOperationException("Unable to validate product. Please try again later.");
+        }
+
+        return checked.stream()
+                .filter(ProductAvailabilityDto::isFound)
+                .toList();
     }
 }
@@ -0,0 +1,110 @@
+package com.server.cartservice.domain.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Property checks: after any sequence of cart operations the running totals and the code index
+// agree with a full recompute over the lines.
+class CartTest {
+
+    private static final int OPERATIONS = 300;
+    private static final int CODES = 40;
+
+    static LongStream seeds() {
+        return LongStream.range(0, 200);
+    }
+
+    @ParameterizedTest(name = "seed {0}")
+    @MethodSource("seeds")
+    void runningTotalsMatchFullRecompute(long seed) {
+        Random random = new Random(seed);
+        Cart cart = Cart.builder().build();
+        cart.calculateTotals();
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            String code = "P" + random.nextInt(CODES);
+            switch (random.nextInt(10)) {
+                case 0, 1, 2, 3 -> cart.addLine(line(random, code));
+                case 4 -> cart.addLines(List.of(line(random, code), line(random, "P" + random.nextInt(CODES))));
+                case 5, 6 -> cart.updateLineQuantity(code, random.nextInt(20));
+                case 7, 8 -> cart.removeLine(code);
+                default -> {
+                    if (random.nextInt(20) == 0) {
+                        cart.clear();
+                    }
+                }
+            }
+            assertMatchesRecompute(cart);
+        }
+    }
+
+    @ParameterizedTest(name = "seed {0}")
+    @MethodSource("seeds")
+    void loadedLinesAreIndexedOnFirstUse(long seed) {
+        Random random = new Random(seed);
+        List<CartLine> lines = new ArrayList<>();
+        for (int c = 0; c < CODES; c++) {
+            if (random.nextBoolean()) {
+                lines.add(line(random, "P" + c));
+            }
+        }
+        // as Hibernate leaves it: lines set, totals stale
+        Cart cart = Cart.builder().cartLines(lines).subtotal(BigDecimal.TEN).build();
+
+        assertMatchesRecompute(cart);
+        String code = "P" + random.nextInt(CODES);
+        cart.updateLineQuantity(code, 3);
+        cart.removeLine("P" + random.nextInt(CODES));
+        assertMatchesRecompute(cart);
+    }
+
+    @Test
+    void addingAnExistingCodeMergesQuantities() {
+        Cart cart = Cart.builder().build();
+        cart.addLine(CartLine.builder().productCode("P1").quantity(2).unitPrice(new BigDecimal("1.50")).build());
+        cart.addLine(CartLine.builder().productCode("P1").quantity(3).unitPrice(new BigDecimal("1.50")).build());
+
+        assertThat(cart.getCartLines()).hasSize(1);
+        assertThat(cart.getLine("P1").getQuantity()).isEqualTo(5);
+        assertThat(cart.getTotalLines()).isEqualTo(5);
+        assertThat(cart.getSubtotal()).isEqualByComparingTo("7.50");
+    }
+
+    private static void assertMatchesRecompute(Cart cart) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        int items = 0;
+        for (CartLine line : cart.getCartLines()) {
+            subtotal = subtotal.add(line.getLineTotal());
+            items += line.getQuantity();
+            assertThat(cart.getLine(line.getProductCode())).isSameAs(line);
+        }
+
+        assertThat(cart.getTotalLines()).isEqualTo(items);
+        assertThat(cart.getSubtotal()).isEqualByComparingTo(subtotal);
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo(subtotal);
+        assertThat(cart.getCartLines())
+                .extracting(CartLine::getProductCode)
+                .doesNotHaveDuplicates();
+    }
+
+    // a mix of scales, a few lines without a price
+    private static CartLine line(Random random, String code) {
+        BigDecimal unitPrice = random.nextInt(10) == 0
+                ? null
+                : BigDecimal.valueOf(random.nextInt(100_000), random.nextInt(4));
+        return CartLine.builder()
+                .productCode(code)
+                .quantity(1 + random.nextInt(10))
+                .unitPrice(unitPrice)
+                .build();
+    }
+}
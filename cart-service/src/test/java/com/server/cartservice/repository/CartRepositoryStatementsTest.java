@@ -0,0 +1,212 @@
+package com.server.cartservice.repository;
+
+import com.server.cartservice.domain.entity.Cart;
+import com.server.cartservice.domain.entity.CartLine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Exact write statements per cart operation. Each entry is one prepared statement, so a
+// batch of rows shows up once; the Hibernate statistics give the rows behind it.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.server.cartservice.repository.CartRepositoryStatementsTest$WriteRecorder"
+})
+class CartRepositoryStatementsTest {
+
+    private static final int LINES = 10;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long cartId;
+
+    @BeforeEach
+    void setUp() {
+        Cart cart = newCart();
+        for (int i = 0; i < LINES; i++) {
+            cart.addLine(line("P" + i, 2));
+        }
+        cartId = cartRepository.save(cart).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void addingLinesInsertsOnlyTheNewLinesInOneBatch() {
+        Cart cart = loadCart();
+
+        List<String> writes = save(cart, () -> cart.addLines(List.of(line("N1", 1), line("N2", 1), line("N3", 1))));
+
+        assertThat(writes).containsExactly("insert into cart_lines", "update carts");
+        assertRows(3, 1, 0);
+    }
+
+    @Test
+    void mergingIntoAnExistingLineUpdatesThatLineOnly() {
+        Cart cart = loadCart();
+
+        List<String> writes = save(cart, () -> cart.addLine(line("P3", 1)));
+
+        assertThat(writes).containsExactly("update carts", "update cart_lines");
+        assertRows(0, 2, 0);
+    }
+
+    @Test
+    void updatingQuantitiesBatchesTheChangedLines() {
+        Cart cart = loadCart();
+
+        List<String> writes = save(cart, () -> {
+            cart.updateLineQuantity("P1", 5);
+            cart.updateLineQuantity("P7", 6);
+        });
+
+        assertThat(writes).containsExactly("update carts", "update cart_lines");
+        assertRows(0, 3, 0);
+    }
+
+    @Test
+    void removingLinesDeletesThemInOneBatch() {
+        Cart cart = loadCart();
+
+        List<String> writes = save(cart, () -> {
+            cart.removeLine("P2");
+            cart.removeLine("P5");
+        });
+
+        assertThat(writes).containsExactly("update carts", "delete from cart_lines");
+        assertRows(0, 1, 2);
+    }
+
+    @Test
+    void clearingDeletesEveryLineInOneBatch() {
+        Cart cart = loadCart();
+
+        List<String> writes = save(cart, cart::clear);
+
+        assertThat(writes).containsExactly("update carts", "delete from cart_lines");
+        assertRows(0, 1, LINES);
+    }
+
+    @Test
+    void mixedChangesWriteOneStatementPerKind() {
+        Cart cart = loadCart();
+
+        List<String> writes = save(cart, () -> {
+            cart.addLines(List.of(line("N1", 1), line("N2", 1)));
+            cart.updateLineQuantity("P4", 9);
+            cart.removeLine("P8");
+        });
+
+        assertThat(writes).containsExactly(
+                "insert into cart_lines", "update carts", "update cart_lines", "delete from cart_lines");
+        assertRows(2, 2, 1);
+    }
+
+    @Test
+    void readingACartWritesNothing() {
+        Cart cart = loadCart();
+
+        List<String> writes = save(cart, cart::getTotalLines);
+
+        assertThat(writes).isEmpty();
+        assertRows(0, 0, 0);
+    }
+
+    @Test
+    void newCartInsertsHeaderAndLinesInOneBatch() {
+        Cart cart = newCart();
+        cart.addLines(List.of(line("N1", 1), line("N2", 1), line("N3", 1)));
+
+        List<String> writes = save(cart, () -> {
+        });
+
+        assertThat(writes).containsExactly("insert into carts", "insert into cart_lines");
+        assertRows(4, 0, 0);
+    }
+
+    private Cart loadCart() {
+        Cart cart = cartRepository.findById(cartId).orElseThrow();
+        assertThat(cart.getTotalLines()).isEqualTo(LINES * 2);
+        return cart;
+    }
+
+    // applies the change, saves the cart the way CartServiceImpl does and returns the writes of the flush
+    private List<String> save(Cart cart, Runnable change) {
+        change.run();
+        statistics.clear();
+        WriteRecorder.WRITES.clear();
+        cartRepository.save(cart);
+        entityManager.flush();
+        return new ArrayList<>(WriteRecorder.WRITES);
+    }
+
+    private void assertRows(long inserted, long updated, long deleted) {
+        assertThat(statistics.getEntityInsertCount()).as("rows inserted").isEqualTo(inserted);
+        assertThat(statistics.getEntityUpdateCount()).as("rows updated").isEqualTo(updated);
+        assertThat(statistics.getEntityDeleteCount()).as("rows deleted").isEqualTo(deleted);
+    }
+
+    private static Cart newCart() {
+        Cart cart = Cart.builder()
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        cart.calculateTotals();
+        return cart;
+    }
+
+    private static CartLine line(String code, int quantity) {
+        return CartLine.builder()
+                .productCode(code)
+                .name("product " + code)
+                .quantity(quantity)
+                .unitPrice(new BigDecimal("9.99"))
+                .available(true)
+                .build();
+    }
+
+    // Records the verb and table of every insert, update and delete Hibernate prepares.
+    public static class WriteRecorder implements StatementInspector {
+
+        static final List<String> WRITES = new ArrayList<>();
+
+        private static final Pattern WRITE = Pattern.compile("^(insert into|update|delete from)\\s+(\\w+)");
+
+        @Override
+        public String inspect(String sql) {
+            Matcher matcher = WRITE.matcher(sql.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+            if (matcher.find()) {
+                WRITES.add(matcher.group(1) + " " + matcher.group(2));
+            }
+            return sql;
+        }
+    }
+}
@@ -10,5 +10,6 @@ public record PurchaseResponse(Long id,
          String imageUrl,
          String category,
          Integer stockQuantity,
-         Boolean available) {
+         Boolean available,
+         Integer quantity) {
 }
@@ -0,0 +1,24 @@
+package com.server.productservice.cache;
+
+import com.server.productservice.domain.dto.response.ProductResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Predicate;
+
+// gzip is null when the body was too small to be worth compressing.
+public record EncodedListing(byte[] json, byte[] gzip, String etag, Predicate<ProductResponse> affectedBy) {
+
+    public ResponseEntity<byte[]> toResponse(boolean acceptsGzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptsGzip && gzip != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return response.body(json);
+    }
+}
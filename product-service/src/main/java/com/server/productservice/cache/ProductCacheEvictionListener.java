@@ -0,0 +1,63 @@
+package com.server.productservice.cache;
+
+import com.server.productservice.config.CacheConfig;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.event.CategoryChangedEvent;
+import com.server.productservice.domain.event.ProductChangedEvent;
+import com.server.productservice.domain.event.ProductsPatchedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache != null) {
+            log.debug("Evicting product {} from cache after {}", event.productCode(), event.type());
+            cache.evict(event.productCode());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductsPatched(ProductsPatchedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache != null) {
+            log.debug("Evicting {} patched products from cache", event.products().size());
+            event.products().forEach(product -> cache.evict(product.getProductCode()));
+        }
+    }
+
+    // For writes made by any instance, this one included: an entry already at the written
+    // version was loaded after the write and stays. A delete has no newer version, so it always evicts.
+    public void evictOlderThan(String productCode, Long version) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        ProductResponse cached = cache.get(productCode, ProductResponse.class);
+        if (cached != null && (version == null || cached.getVersion() == null || cached.getVersion() < version)) {
+            log.debug("Evicting product {} from cache after a write at version {}", productCode, version);
+            cache.evict(productCode);
+        }
+    }
+
+    // cached products embed the category name
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache != null) {
+            log.debug("Clearing product cache after change to category {}", event.categoryId());
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.server.productservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.server.datasource.PrimaryReads;
+import com.server.productservice.catalog.CatalogETags;
+import com.server.productservice.config.ProductListingCacheProperties;
+import com.server.productservice.domain.dto.response.ProductPageResponse;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.event.CategoryChangedEvent;
+import com.server.productservice.domain.event.ProductChangedEvent;
+import com.server.productservice.domain.event.ProductsPatchedEvent;
+import com.server.productservice.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+// Listings are kept as the bytes that go on the wire. Each entry knows which
+// product changes can alter it, so a write only drops the listings it touches.
+@Slf4j
+@Component
+public class ProductListingCache {
+
+    private static final int BULK_INVALIDATE_ALL_THRESHOLD = 100;
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final ProductListingCacheProperties properties;
+    private final Cache<String, EncodedListing> listings;
+
+    // bumped on every invalidation; a listing loaded across a bump may be stale and is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductListingCache(ProductService productService, ObjectMapper objectMapper,
+            ProductListingCacheProperties properties, MeterRegistry meterRegistry) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.listings = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, listings, "product-listings");
+    }
+
+    public EncodedListing availablePage(Long afterId, int size) {
+        return get("available:" + afterId + ":" + size, () -> {
+            String etag = productService.getAllAvailableTrueETag(afterId, size);
+            ProductPageResponse page = productService.getAllAvailableTrue(afterId, size);
+
+            // a stale hasNext past the last row is tolerated: the next page just comes back empty
+            long from = afterId == null ? 0 : afterId;
+            long to = page.isHasNext() ? page.getNextCursor() : Long.MAX_VALUE;
+            return encode(page, etag, product -> product.getId() > from && product.getId() <= to);
+        });
+    }
+
+    public EncodedListing categoryListing(Long categoryId) {
+        return get("category:" + categoryId, () -> {
+            String etag = productService.getProductsByCategoryIdETag(categoryId);
+            List<ProductResponse> products = productService.getProductsByCategoryId(categoryId);
+
+            Set<Long> ids = products.stream().map(ProductResponse::getId).collect(Collectors.toSet());
+            return encode(products, etag,
+                    product -> categoryId.equals(product.getCategoryId()) || ids.contains(product.getId()));
+        });
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponse product = event.product();
+        generation.incrementAndGet();
+        if (product == null || product.getId() == null) {
+            listings.invalidateAll();
+            return;
+        }
+        listings.asMap().values().removeIf(listing -> listing.affectedBy().test(product));
+    }
+
+    // matching every listing against a large patch costs more than reloading what is used
+    @TransactionalEventListener
+    public void onProductsPatched(ProductsPatchedEvent event) {
+        generation.incrementAndGet();
+        if (event.products().size() > BULK_INVALIDATE_ALL_THRESHOLD) {
+            listings.invalidateAll();
+            return;
+        }
+        listings.asMap().values().removeIf(listing -> event.products().stream().anyMatch(listing.affectedBy()));
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        generation.incrementAndGet();
+        listings.invalidateAll();
+    }
+
+    private EncodedListing get(String key, Supplier<EncodedListing> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        EncodedListing cached = listings.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // a listing loaded from a lagging replica would be served to everyone until it expires
+        long loadedAt = generation.get();
+        EncodedListing listing = PrimaryReads.get(loader);
+        if (generation.get() == loadedAt) {
+            listings.put(key, listing);
+        }
+        return listing;
+    }
+
+    private EncodedListing encode(Object body, String etag, Predicate<ProductResponse> affectedBy) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] gzip = properties.isGzip() && json.length >= properties.getGzipMinBytes() ? gzip(json) : null;
+            return new EncodedListing(json, gzip, CatalogETags.weak(etag), affectedBy);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product listing", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,53 @@
+package com.server.productservice.catalog;
+
+import com.server.productservice.domain.dto.response.CategoryResponse;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.projection.ProductVersionView;
+
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+
+// Entity tags are returned unquoted; Spring adds the quotes when writing the header.
+public final class CatalogETags {
+
+    private CatalogETags() {
+    }
+
+    public static String of(ProductResponse product) {
+        long updatedAt = product.getUpdatedAt() == null
+                ? 0 : product.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        return product.getVersion() + "-" + Long.toHexString(updatedAt);
+    }
+
+    // Every write path bumps the row version, so (id, version) pairs in result order
+    // identify a listing: an edit, insert or delete inside it changes the tag.
+    public static String ofVersions(List<? extends ProductVersionView> versions) {
+        long hash = 1;
+        for (ProductVersionView row : versions) {
+            hash = 31 * hash + row.getId();
+            hash = 31 * hash + row.getVersion();
+        }
+        return "p" + versions.size() + "-" + Long.toHexString(hash);
+    }
+
+    // A listing served both gzipped and as identity is only semantically equivalent across
+    // the two, so it must not carry a strong tag.
+    public static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    public static String of(CategoryResponse category) {
+        return ofCategories(List.of(category));
+    }
+
+    public static String ofCategories(List<CategoryResponse> categories) {
+        long hash = 1;
+        for (CategoryResponse category : categories) {
+            hash = 31 * hash + category.getId();
+            hash = 31 * hash + Objects.hashCode(category.getName());
+            hash = 31 * hash + Objects.hashCode(category.getDescription());
+        }
+        return "c" + categories.size() + "-" + Long.toHexString(hash);
+    }
+}
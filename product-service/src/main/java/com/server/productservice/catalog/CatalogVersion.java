@@ -0,0 +1,6 @@
+package com.server.productservice.catalog;
+
+// Every product write bumps its version and a delete drops the count, so a change made by
+// any instance shows up as a different value here.
+public record CatalogVersion(Long products, Long versions) {
+}
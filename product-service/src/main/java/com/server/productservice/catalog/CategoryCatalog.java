@@ -0,0 +1,175 @@
+package com.server.productservice.catalog;
+
+import com.server.productservice.domain.dto.response.CategoryResponse;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.enums.ProductEventType;
+import com.server.productservice.domain.event.CategoryChangedEvent;
+import com.server.productservice.domain.event.ProductChangedEvent;
+import com.server.productservice.domain.event.ProductsPatchedEvent;
+import com.server.productservice.domain.projection.ProductCategoryView;
+import com.server.productservice.repository.CategoryRepository;
+import com.server.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Reads go through the volatile snapshot reference; writers are serialized so a
+// full rebuild and an incremental product change cannot overwrite each other.
+// Local writes are applied as they commit; writes made by other instances are
+// picked up by a periodic check of the catalog version and the categories.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryCatalog {
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile CategorySnapshot snapshot;
+    private volatile CatalogVersion builtVersion;
+
+    public CategorySnapshot current() {
+        CategorySnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${product.catalog.refresh-interval-ms:30000}",
+            initialDelayString = "${product.catalog.refresh-interval-ms:30000}")
+    public void refreshIfChanged() {
+        CategorySnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        Boolean changed = transactionTemplate.execute(status ->
+                !productRepository.findCatalogVersion().equals(builtVersion)
+                        || !loadCategories().equals(current.categories()));
+        if (Boolean.TRUE.equals(changed)) {
+            log.debug("Catalog changed elsewhere, rebuilding the category snapshot");
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    // Changes are collected per transaction and applied together once it commits,
+    // so a bulk write copies each affected category once rather than per product.
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponse product = event.product();
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        Long categoryId = event.type() == ProductEventType.DELETED ? null : product.getCategoryId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges().put(product.getId(), categoryId);
+        } else {
+            apply(Collections.singletonMap(product.getId(), categoryId));
+        }
+    }
+
+    // an import batch can insert products or move them between categories
+    @EventListener
+    public void onProductsPatched(ProductsPatchedEvent event) {
+        Map<Long, Long> categoryByProduct = new HashMap<>();
+        event.products().stream()
+                .filter(product -> product.getId() != null)
+                .forEach(product -> categoryByProduct.put(product.getId(), product.getCategoryId()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges().putAll(categoryByProduct);
+        } else {
+            apply(categoryByProduct);
+        }
+    }
+
+    private synchronized void apply(Map<Long, Long> categoryByProduct) {
+        if (snapshot != null) {
+            snapshot = snapshot.withProducts(categoryByProduct);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> pendingChanges() {
+        Map<Long, Long> pending = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        Map<Long, Long> changes = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, changes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(changes);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CategoryCatalog.this);
+            }
+        });
+        return changes;
+    }
+
+    private synchronized CategorySnapshot rebuild() {
+        long start = System.currentTimeMillis();
+        CategorySnapshot rebuilt = transactionTemplate.execute(status -> load());
+        snapshot = rebuilt == null ? CategorySnapshot.EMPTY : rebuilt;
+        log.info("Category snapshot built: {} categories in {} ms",
+                snapshot.categories().size(), System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    // the version is read first, so a change committed while loading is seen by the next check
+    private CategorySnapshot load() {
+        builtVersion = productRepository.findCatalogVersion();
+        List<CategoryResponse> categories = loadCategories();
+
+        // rows arrive ordered by product id, so every list is already sorted
+        Map<Long, List<Long>> idsByCategory = new HashMap<>();
+        try (Stream<ProductCategoryView> rows = productRepository.streamCategoryIds()) {
+            rows.filter(row -> row.getCategoryId() != null)
+                    .forEach(row -> idsByCategory.computeIfAbsent(row.getCategoryId(), id -> new ArrayList<>())
+                            .add(row.getId()));
+        }
+
+        Map<Long, long[]> productIds = new HashMap<>();
+        idsByCategory.forEach((categoryId, ids) ->
+                productIds.put(categoryId, ids.stream().mapToLong(Long::longValue).toArray()));
+        return CategorySnapshot.of(categories, productIds);
+    }
+
+    private List<CategoryResponse> loadCategories() {
+        return categoryRepository.findAll(Sort.by("id"))
+                .stream()
+                .map(category -> CategoryResponse.builder()
+                        .id(category.getId())
+                        .name(category.getName())
+                        .description(category.getDescription())
+                        .build())
+                .toList();
+    }
+}
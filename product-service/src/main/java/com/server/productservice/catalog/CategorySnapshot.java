@@ -0,0 +1,102 @@
+package com.server.productservice.catalog;
+
+import com.server.productservice.domain.dto.response.CategoryResponse;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// Never mutated once built: writers derive a new snapshot and swap it in, so
+// readers can keep using whichever one they picked up without locking.
+public final class CategorySnapshot {
+
+    static final CategorySnapshot EMPTY = new CategorySnapshot(List.of(), Map.of());
+
+    private static final long[] NO_PRODUCTS = new long[0];
+
+    private final List<CategoryResponse> categories;
+    private final Map<Long, CategoryResponse> categoriesById;
+    // product ids per category, sorted ascending
+    private final Map<Long, long[]> productIds;
+
+    private CategorySnapshot(List<CategoryResponse> categories, Map<Long, long[]> productIds) {
+        this.categories = categories.stream()
+                .sorted(Comparator.comparing(CategoryResponse::getId))
+                .toList();
+        this.categoriesById = this.categories.stream()
+                .collect(Collectors.toUnmodifiableMap(CategoryResponse::getId, Function.identity()));
+        this.productIds = Map.copyOf(productIds);
+    }
+
+    static CategorySnapshot of(List<CategoryResponse> categories, Map<Long, long[]> productIds) {
+        return new CategorySnapshot(categories, productIds);
+    }
+
+    public List<CategoryResponse> categories() {
+        return categories;
+    }
+
+    public Optional<CategoryResponse> category(Long categoryId) {
+        return Optional.ofNullable(categoriesById.get(categoryId));
+    }
+
+    public List<Long> productIds(Long categoryId) {
+        return Arrays.stream(productIds.getOrDefault(categoryId, NO_PRODUCTS)).boxed().toList();
+    }
+
+    public int productCount(Long categoryId) {
+        return productIds.getOrDefault(categoryId, NO_PRODUCTS).length;
+    }
+
+    // Maps product id to its new category; a null category removes the product.
+    // Each affected category is copied once however many of its products changed.
+    CategorySnapshot withProducts(Map<Long, Long> categoryByProduct) {
+        Map<Long, Set<Long>> removed = new HashMap<>();
+        Map<Long, Set<Long>> added = new HashMap<>();
+        categoryByProduct.forEach((productId, categoryId) -> {
+            Long current = categoryOf(productId);
+            if (Objects.equals(current, categoryId)) {
+                return;
+            }
+            if (current != null) {
+                removed.computeIfAbsent(current, id -> new HashSet<>()).add(productId);
+            }
+            if (categoryId != null) {
+                added.computeIfAbsent(categoryId, id -> new HashSet<>()).add(productId);
+            }
+        });
+        if (removed.isEmpty() && added.isEmpty()) {
+            return this;
+        }
+
+        Map<Long, long[]> ids = new HashMap<>(productIds);
+        Set<Long> affected = new HashSet<>(removed.keySet());
+        affected.addAll(added.keySet());
+        for (Long categoryId : affected) {
+            Set<Long> gone = removed.getOrDefault(categoryId, Set.of());
+            LongStream kept = Arrays.stream(ids.getOrDefault(categoryId, NO_PRODUCTS))
+                    .filter(productId -> !gone.contains(productId));
+            LongStream fresh = added.getOrDefault(categoryId, Set.of()).stream().mapToLong(Long::longValue);
+            ids.put(categoryId, LongStream.concat(kept, fresh).sorted().toArray());
+        }
+        return new CategorySnapshot(categories, ids);
+    }
+
+    private Long categoryOf(long productId) {
+        for (Map.Entry<Long, long[]> entry : productIds.entrySet()) {
+            if (Arrays.binarySearch(entry.getValue(), productId) >= 0) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.server.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.availability")
+public class AvailabilityProperties {
+
+    // ids scanned per transaction by the drift check
+    private int verifyChunkSize = 5000;
+    private long verifyIntervalMs = 3600000;
+}
@@ -0,0 +1,24 @@
+package com.server.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.hot-sku")
+public class HotSkuProperties {
+
+    private List<String> codes = new ArrayList<>();
+    private int stripes = Runtime.getRuntime().availableProcessors();
+    private long flushIntervalMs = 1000;
+    private long resetLockTimeoutMs = 5000;
+    // each instance sells from its own lease of unheld stock, topped up when it falls below half
+    private String owner = "local";
+    private int leaseSize = 100;
+    // a lease not renewed by its owner's flush for this long is handed back to the pool
+    private long leaseTtlMs = 30000;
+}
@@ -0,0 +1,19 @@
+package com.server.productservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaProductTopicConfig {
+
+    public static final String PRODUCT_TOPIC = "product-events";
+
+    @Bean
+    public NewTopic productTopic() {
+        return TopicBuilder
+                .name(PRODUCT_TOPIC)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.server.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.events")
+public class ProductEventsProperties {
+
+    // events waiting for the publisher thread; beyond this they are dropped and counted
+    private int queueCapacity = 10000;
+    // products per PATCHED message when a bulk write goes out
+    private int patchBatchSize = 500;
+    // every instance reads every event to evict its own caches, so each has its own group;
+    // stable across restarts so a restart does not leave a group behind on the broker
+    private String groupId = "product-service";
+}
@@ -0,0 +1,14 @@
+package com.server.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.import")
+public class ProductImportProperties {
+
+    private int batchSize = 1000;
+    private int maxReportedRejections = 1000;
+}
@@ -0,0 +1,20 @@
+package com.server.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.listing-cache")
+public class ProductListingCacheProperties {
+
+    private boolean enabled = true;
+    private long maximumSize = 1000;
+    // bounds staleness from writes made on other instances, which are not seen here
+    private Duration ttl = Duration.ofSeconds(30);
+    private boolean gzip = true;
+    private int gzipMinBytes = 1024;
+}
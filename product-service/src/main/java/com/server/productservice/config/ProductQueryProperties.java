@@ -0,0 +1,20 @@
+package com.server.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.query")
+public class ProductQueryProperties {
+
+    // upper bounds of the price facet buckets, ascending; a final open bucket follows the last one
+    private List<BigDecimal> priceBuckets = new ArrayList<>(List.of(
+            new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"),
+            new BigDecimal("250"), new BigDecimal("500"), new BigDecimal("1000")));
+}
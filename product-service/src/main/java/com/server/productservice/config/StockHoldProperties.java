@@ -0,0 +1,22 @@
+package com.server.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.holds")
+public class StockHoldProperties {
+
+    private Duration defaultTtl = Duration.ofMinutes(15);
+    private Duration maxTtl = Duration.ofMinutes(60);
+    // expiry resolution of the timing wheel; a wheel turn is tick * wheel-size
+    private Duration tick = Duration.ofSeconds(1);
+    private int wheelSize = 512;
+    private int expiryBatchSize = 1000;
+    // expires overdue holds the wheel does not know about, e.g. placed by an instance that went away
+    private long sweepIntervalMs = 60000;
+}
@@ -1,5 +1,6 @@
 package com.server.productservice.controller;
 
+import com.server.productservice.catalog.CatalogETags;
 import com.server.productservice.domain.dto.request.CategoryRequest;
 import com.server.productservice.domain.dto.response.CategoryResponse;
 import com.server.productservice.service.CategoryService;
@@ -10,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -31,18 +33,26 @@ public class CategoryController {
 
     @Operation(summary = "Get category by ID")
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id, WebRequest webRequest) {
         log.info("Rest request to get category: {}", id);
         CategoryResponse category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(category);
+        String etag = CatalogETags.of(category);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(category);
     }
 
     @Operation(summary = "Get all categorys")
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategory() {
+    public ResponseEntity<List<CategoryResponse>> getAllCategory(WebRequest webRequest) {
         log.info("Rest request to get all categorys");
         List<CategoryResponse> categorys = categoryService.getAllCategory();
-        return ResponseEntity.ok(categorys);
+        String etag = CatalogETags.ofCategories(categorys);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(categorys);
     }
 
     @Operation(summary = "Update category")
@@ -1,17 +1,53 @@
 package com.server.productservice.controller;
 
+import com.server.productservice.cache.EncodedListing;
+import com.server.productservice.cache.ProductListingCache;
+import com.server.productservice.catalog.CatalogETags;
+import com.server.productservice.domain.dto.request.AvailabilityRequest;
+import com.server.productservice.domain.dto.request.ProductBatchRequest;
+import com.server.productservice.domain.dto.request.ProductPatchRequest;
+import com.server.productservice.domain.dto.request.ProductQueryRequest;
 import com.server.productservice.domain.dto.request.ProductRequest;
+import com.server.productservice.domain.dto.request.PurchaseRequest;
+import com.server.productservice.domain.dto.response.AvailabilityResponse;
+import com.server.productservice.domain.dto.response.ProductBatchResponse;
+import com.server.productservice.domain.dto.response.ProductImportResponse;
+import com.server.productservice.domain.dto.response.ProductPageResponse;
+import com.server.productservice.domain.dto.response.ProductPatchResponse;
+import com.server.productservice.domain.dto.response.ProductQueryResponse;
 import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.dto.response.ProductSearchResponse;
+import com.server.productservice.domain.dto.response.PurchaseResponse;
+import com.server.productservice.domain.enums.ProductImportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.productservice.service.ProductImportService;
 import com.server.productservice.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -20,6 +56,9 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductListingCache productListingCache;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Create a new product")
     @PostMapping
@@ -31,52 +70,168 @@ public class ProductController {
 
     @Operation(summary = "Get product by ID")
     @GetMapping("/{productCode}")
-    public ResponseEntity<ProductResponse> getProduct(@PathVariable String productCode) {
+    public ResponseEntity<ProductResponse> getProduct(@PathVariable String productCode, WebRequest webRequest) {
         log.info("Rest request to get product: {}", productCode);
         ProductResponse product = productService.getProduct(productCode);
-        return ResponseEntity.ok(product);
+        String etag = CatalogETags.of(product);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(product);
+    }
+
+    @Operation(summary = "Get products by a list of codes")
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatchResponse> getProductsByCodes(@Valid @RequestBody ProductBatchRequest request) {
+        log.info("Rest request to get products by codes: {}", request.getProductCodes().size());
+        ProductBatchResponse products = productService.getProductsByCodes(request.getProductCodes());
+        return ResponseEntity.ok(products);
+    }
+
+    @Operation(summary = "Get the current version of each product in a list of codes")
+    @PostMapping("/versions")
+    public ResponseEntity<Map<String, Long>> getVersionsByCodes(@Valid @RequestBody ProductBatchRequest request) {
+        log.debug("Rest request to get versions of {} products", request.getProductCodes().size());
+        Map<String, Long> versions = productService.getVersionsByCodes(request.getProductCodes());
+        return ResponseEntity.ok(versions);
     }
 
     @Operation(summary = "Get all products by name")
-    @GetMapping("/{productName}")
+    @GetMapping("/name/{productName}")
     public ResponseEntity<List<ProductResponse>> getAllProductsByName(@PathVariable String productName) {
         log.info("Rest request to get all products by name: {}", productName);
         List<ProductResponse> product = productService.getAllProductsByName(productName);
         return ResponseEntity.ok(product);
     }
 
+    @Operation(summary = "Search products by name and description")
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResponse> searchProducts(@RequestParam String q,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        log.info("Rest request to search products: {}", q);
+        ProductSearchResponse products = productService.searchProducts(q, page, size);
+        return ResponseEntity.ok(products);
+    }
+
+    @Operation(summary = "Query products with combined filters, sorting and facet counts")
+    @GetMapping("/query")
+    public ResponseEntity<ProductQueryResponse> queryProducts(@Valid ProductQueryRequest request) {
+        log.info("Rest request to query products: {}", request);
+        ProductQueryResponse products = productService.queryProducts(request);
+        return ResponseEntity.ok(products);
+    }
+
+    @Operation(summary = "Suggest product names for a prefix")
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<String>> suggestProducts(@RequestParam String prefix,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        List<String> suggestions = productService.suggestProducts(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @Operation(summary = "Get all products with available true")
-    @GetMapping("/available")
-    public ResponseEntity<List<ProductResponse>> getAllAvailableTrue() {
-        log.info("Rest request to get all products with available true");
-        List<ProductResponse> product = productService.getAllAvailableTrue();
-        return ResponseEntity.ok(product);
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ProductPageResponse.class)))
+    @GetMapping(value = "/available", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllAvailableTrue(@RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        log.info("Rest request to get products with available true after: {}", afterId);
+        EncodedListing listing = productListingCache.availablePage(afterId, size);
+        if (webRequest.checkNotModified(listing.etag())) {
+            return null;
+        }
+        return listing.toResponse(acceptsGzip(acceptEncoding));
     }
 
     @Operation(summary = "Get all products")
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        log.info("Rest request to get all products");
-        List<ProductResponse> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<ProductPageResponse> getAllProducts(@RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int size, WebRequest webRequest) {
+        log.info("Rest request to get products after: {}", afterId);
+        String etag = productService.getAllProductsETag(afterId, size);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        ProductPageResponse products = productService.getAllProducts(afterId, size);
+        return ResponseEntity.ok().eTag(etag).body(products);
+    }
+
+    @Operation(summary = "Stream all products as NDJSON")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts(@RequestParam(defaultValue = "false") boolean available) {
+        log.info("Rest request to stream products with available: {}", available);
+        StreamingResponseBody body = out -> productService.streamProducts(available, product -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(product));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @Operation(summary = "Get products by categoryId")
-    @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<ProductResponse>> getProductsByCategory(@PathVariable Long categoryId) {
+    @ApiResponse(responseCode = "200",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductResponse.class))))
+    @GetMapping(value = "/category/{categoryId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getProductsByCategory(@PathVariable Long categoryId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
         log.info("Rest request to get products by categoryId: {}", categoryId);
-        List<ProductResponse> products = productService.getProductsByCategoryId(categoryId);
-        return ResponseEntity.ok(products);
+        EncodedListing listing = productListingCache.categoryListing(categoryId);
+        if (webRequest.checkNotModified(listing.etag())) {
+            return null;
+        }
+        return listing.toResponse(acceptsGzip(acceptEncoding));
     }
 
     @Operation(summary = "Check product availability")
     @GetMapping("/{productCode}/availability")
-    public ResponseEntity<Boolean> checkAvailability(@PathVariable String productCode, @RequestParam int quantity) {
-        log.info("Rest request to check availability: productCode={}, quantity={}", productCode, quantity);
-        boolean available = productService.isProductAvailable(productCode, quantity);
+    public ResponseEntity<Boolean> checkAvailability(@PathVariable String productCode, @RequestParam int quantity,
+                                                     @RequestParam(required = false) Long cartId) {
+        log.debug("Rest request to check availability: productCode={}, quantity={}", productCode, quantity);
+        boolean available = productService.isProductAvailable(productCode, quantity, cartId);
         return ResponseEntity.ok(available);
     }
 
+    @Operation(summary = "Check availability of many product lines")
+    @PostMapping("/availability")
+    public ResponseEntity<List<AvailabilityResponse>> checkAvailability(
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid AvailabilityRequest> request,
+            @RequestParam(required = false) Long cartId) {
+        log.debug("Rest request to check availability of {} product lines", request.size());
+        List<AvailabilityResponse> availability = productService.checkAvailability(request, cartId);
+        return ResponseEntity.ok(availability);
+    }
+
+    @Operation(summary = "Purchase products and decrement their stock")
+    @PostMapping("/purchase")
+    public ResponseEntity<List<PurchaseResponse>> purchaseProducts(
+            @RequestBody @NotEmpty List<@Valid PurchaseRequest> request,
+            @RequestParam(required = false) Long cartId) {
+        log.info("Rest request to purchase {} product lines", request.size());
+        List<PurchaseResponse> purchased = productService.purchaseProducts(request, cartId);
+        return ResponseEntity.ok(purchased);
+    }
+
+    @Operation(summary = "Bulk import products from a CSV or NDJSON stream")
+    @PostMapping(value = "/import",
+            consumes = {ProductImportFormat.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(required = false) @Min(1) @Max(10000) Integer batchSize,
+            InputStream body) throws IOException {
+        log.info("Rest request to import products ({})", contentType);
+        ProductImportResponse imported = productImportService.importProducts(
+                body, ProductImportFormat.fromContentType(contentType), batchSize);
+        return ResponseEntity.ok(imported);
+    }
+
     @Operation(summary = "Update product")
     @PutMapping("/{id}")
     public ResponseEntity<ProductRequest> updateProduct(@PathVariable Long id,
@@ -86,6 +241,15 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    @Operation(summary = "Bulk update prices and stock quantities by product code")
+    @PatchMapping
+    public ResponseEntity<ProductPatchResponse> patchProducts(
+            @RequestBody @NotEmpty @Size(max = 100000) List<@Valid ProductPatchRequest> request) {
+        log.info("Rest request to patch {} products", request.size());
+        ProductPatchResponse patched = productService.patchProducts(request);
+        return ResponseEntity.ok(patched);
+    }
+
     @Operation(summary = "Delete product")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProductById(@PathVariable Long id) {
@@ -93,4 +257,8 @@ public class ProductController {
         productService.deleteProductById(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+}
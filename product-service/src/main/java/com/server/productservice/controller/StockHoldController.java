@@ -0,0 +1,55 @@
+package com.server.productservice.controller;
+
+import com.server.productservice.domain.dto.request.StockHoldRequest;
+import com.server.productservice.domain.dto.response.StockHoldResponse;
+import com.server.productservice.service.StockHoldService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/product/holds")
+@RequiredArgsConstructor
+public class StockHoldController {
+
+    private final StockHoldService stockHoldService;
+
+    @Operation(summary = "Hold stock of a product for a cart, replacing the cart's previous hold on it")
+    @PostMapping
+    public ResponseEntity<StockHoldResponse> placeHold(@Valid @RequestBody StockHoldRequest request) {
+        log.info("Rest request to hold {} x {} for cart {}",
+                request.getQuantity(), request.getProductCode(), request.getCartId());
+        StockHoldResponse hold = stockHoldService.placeHold(request);
+        return ResponseEntity.ok(hold);
+    }
+
+    @Operation(summary = "Get the active stock holds of a cart")
+    @GetMapping("/{cartId}")
+    public ResponseEntity<List<StockHoldResponse>> getHolds(@PathVariable Long cartId) {
+        log.info("Rest request to get stock holds of cart {}", cartId);
+        List<StockHoldResponse> holds = stockHoldService.getHolds(cartId);
+        return ResponseEntity.ok(holds);
+    }
+
+    @Operation(summary = "Release a cart's hold on a product")
+    @DeleteMapping("/{cartId}/{productCode}")
+    public ResponseEntity<Void> releaseHold(@PathVariable Long cartId, @PathVariable String productCode) {
+        log.info("Rest request to release hold on {} for cart {}", productCode, cartId);
+        stockHoldService.releaseHold(cartId, productCode);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Release all stock holds of a cart")
+    @DeleteMapping("/{cartId}")
+    public ResponseEntity<Void> releaseHolds(@PathVariable Long cartId) {
+        log.info("Rest request to release all holds for cart {}", cartId);
+        stockHoldService.releaseHolds(cartId);
+        return ResponseEntity.noContent().build();
+    }
+}
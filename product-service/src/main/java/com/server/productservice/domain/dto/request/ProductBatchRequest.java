@@ -0,0 +1,21 @@
+package com.server.productservice.domain.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchRequest {
+
+    @NotEmpty(message = "Product codes are required")
+    @Size(max = 500, message = "Cannot request more than 500 products at once")
+    private List<String> productCodes;
+}
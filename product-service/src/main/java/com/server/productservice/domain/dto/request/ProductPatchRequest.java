@@ -0,0 +1,28 @@
+package com.server.productservice.domain.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One row of a bulk patch; a missing price or stock quantity is left as it is.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPatchRequest {
+
+    @NotBlank(message = "Product Code is required")
+    private String productCode;
+
+    @DecimalMin(value = "0.01", message = "Price must be positive")
+    private BigDecimal price;
+
+    @Min(value = 0, message = "Stock cannot be negative")
+    private Integer stockQuantity;
+}
@@ -0,0 +1,46 @@
+package com.server.productservice.domain.dto.request;
+
+import com.server.productservice.domain.enums.ProductSortKey;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductQueryRequest {
+
+    @Size(max = 50, message = "Cannot filter on more than 50 categories")
+    private List<Long> categoryId;
+
+    @DecimalMin(value = "0", message = "Minimum price cannot be negative")
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0", message = "Maximum price cannot be negative")
+    private BigDecimal maxPrice;
+
+    private Boolean available;
+
+    @NotNull
+    @Builder.Default
+    private ProductSortKey sort = ProductSortKey.ID_ASC;
+
+    @Min(0)
+    @Builder.Default
+    private int page = 0;
+
+    @Min(1)
+    @Max(100)
+    @Builder.Default
+    private int size = 20;
+}
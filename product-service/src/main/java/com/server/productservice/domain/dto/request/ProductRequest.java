@@ -28,10 +28,13 @@ public class ProductRequest {
 
     private String imageUrl;
 
-    @NotBlank(message = "Category is required")
+    @NotNull(message = "Category is required")
     private Long categoryId;
 
     @NotNull(message = "Stock quantity is required")
     @Min(value = 0, message = "Stock cannot be negative")
     private Integer stockQuantity;
+
+    // optional on update: the version the client last read; a stale one is rejected with 409
+    private Long version;
 }
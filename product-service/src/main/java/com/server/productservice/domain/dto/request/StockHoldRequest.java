@@ -0,0 +1,30 @@
+package com.server.productservice.domain.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldRequest {
+
+    @NotNull(message = "Cart id is required")
+    private Long cartId;
+
+    @NotBlank(message = "Product Code is required")
+    private String productCode;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    // optional, defaults to product.holds.default-ttl and is capped at product.holds.max-ttl
+    @Min(value = 1, message = "Hold must last at least 1 minute")
+    private Integer ttlMinutes;
+}
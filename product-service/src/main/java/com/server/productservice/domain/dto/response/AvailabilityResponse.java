@@ -0,0 +1,25 @@
+package com.server.productservice.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResponse {
+    private String productCode;
+    // enough of the product for a cart line, so callers need no second lookup
+    private String name;
+    private BigDecimal price;
+    private String imageUrl;
+    private int quantity;
+    private int stockQuantity;
+    private boolean found;
+    private boolean available;
+    private Long version;
+}
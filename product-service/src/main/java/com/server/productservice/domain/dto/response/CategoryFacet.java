@@ -0,0 +1,16 @@
+package com.server.productservice.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryFacet {
+    private Long categoryId;
+    private String category;
+    private long count;
+}
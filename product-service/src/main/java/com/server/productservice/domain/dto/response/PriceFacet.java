@@ -0,0 +1,19 @@
+package com.server.productservice.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceFacet {
+    // from is inclusive, to exclusive; the last bucket has no upper bound
+    private BigDecimal from;
+    private BigDecimal to;
+    private long count;
+}
@@ -0,0 +1,20 @@
+package com.server.productservice.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportBatch {
+    private int batch;
+    private int rows;
+    private int inserted;
+    private int updated;
+    private boolean failed;
+    private long durationMs;
+    private long rowsPerSecond;
+}
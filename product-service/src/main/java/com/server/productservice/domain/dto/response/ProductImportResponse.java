@@ -0,0 +1,24 @@
+package com.server.productservice.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+    private long rows;
+    private long inserted;
+    private long updated;
+    private long rejected;
+    private long durationMs;
+    private long rowsPerSecond;
+    private List<ProductImportBatch> batches;
+    // capped at product.import.max-reported-rejections, see rejected for the total
+    private List<ProductImportRejection> rejections;
+}
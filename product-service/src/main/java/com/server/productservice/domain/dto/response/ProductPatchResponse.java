@@ -0,0 +1,19 @@
+package com.server.productservice.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPatchResponse {
+    private int requested;
+    private int updated;
+    private int unchanged;
+    private List<String> notFound;
+}
@@ -0,0 +1,22 @@
+package com.server.productservice.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductQueryResponse {
+    private List<ProductResponse> content;
+    private int page;
+    private int size;
+    private long totalHits;
+    // each facet applies every filter except its own, so the other options stay visible
+    private List<CategoryFacet> categoryFacets;
+    private List<PriceFacet> priceFacets;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -19,6 +20,9 @@ public class ProductResponse {
     private BigDecimal price;
     private String imageUrl;
     private String category;
+    private Long categoryId;
     private Integer stockQuantity;
     private Boolean available;
+    private Long version;
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -1,4 +1,4 @@
-package com.server.cartservice.domain.dto.external;
+package com.server.productservice.domain.dto.response;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class ProductDto {
+public class PurchaseResponse {
+    private Long id;
     private String productCode;
     private String name;
     private String description;
@@ -20,4 +21,5 @@ public class ProductDto {
     private String category;
     private Integer stockQuantity;
     private Boolean available;
-}
\ No newline at end of file
+    private Integer quantity;
+}
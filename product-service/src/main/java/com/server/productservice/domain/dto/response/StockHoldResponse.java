@@ -0,0 +1,20 @@
+package com.server.productservice.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldResponse {
+    private Long id;
+    private Long cartId;
+    private String productCode;
+    private int quantity;
+    private LocalDateTime expiresAt;
+}
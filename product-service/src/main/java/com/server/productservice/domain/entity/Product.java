@@ -2,6 +2,7 @@ package com.server.productservice.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
@@ -10,12 +11,20 @@ import java.math.BigDecimal;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_price", columnList = "category_id, price"),
+        @Index(name = "idx_products_available_price", columnList = "available, price"),
+        @Index(name = "idx_products_updated_at", columnList = "updated_at")
+})
 @EqualsAndHashCode(callSuper = true)
 public class Product extends BaseEntity {
 
+    public static final String ID_SEQUENCE = "products_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -38,7 +47,24 @@ public class Product extends BaseEntity {
     @Column(nullable = false)
     private Boolean available;
 
-    @ManyToOne
+    // units reserved by active stock holds and hot SKU leases; only written by the conditional updates in ProductStockRepository
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer heldQuantity;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
+
+    // available always follows stock; the SQL stock updates set both in the same statement
+    @PrePersist
+    @PreUpdate
+    protected void deriveAvailable() {
+        available = stockQuantity > 0;
+    }
 }
@@ -0,0 +1,35 @@
+package com.server.productservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "stock_holds",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_holds_cart_product", columnNames = {"cart_id", "product_code"}),
+        indexes = @Index(name = "idx_stock_holds_expires_at", columnList = "expires_at"))
+@EqualsAndHashCode(callSuper = true)
+public class StockHold extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_holds_seq")
+    @SequenceGenerator(name = "stock_holds_seq", sequenceName = "stock_holds_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long cartId;
+
+    @Column(nullable = false)
+    private String productCode;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
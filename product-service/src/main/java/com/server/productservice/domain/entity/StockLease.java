@@ -0,0 +1,37 @@
+package com.server.productservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Units of a hot product taken out of the pool by one instance: counted in held_quantity
+// until that instance sells them, hands them back or lets the lease expire.
+@Data
+@Builder
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "stock_leases",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_leases_product_owner", columnNames = {"product_code", "owner"}),
+        indexes = @Index(name = "idx_stock_leases_expires_at", columnList = "expires_at"))
+@EqualsAndHashCode(callSuper = true)
+public class StockLease extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_leases_seq")
+    @SequenceGenerator(name = "stock_leases_seq", sequenceName = "stock_leases_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String productCode;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
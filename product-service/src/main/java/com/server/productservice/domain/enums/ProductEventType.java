@@ -0,0 +1,9 @@
+package com.server.productservice.domain.enums;
+
+public enum ProductEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    // a bulk write: the changed products travel in the event's products list
+    PATCHED
+}
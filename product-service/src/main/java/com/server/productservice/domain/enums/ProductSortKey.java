@@ -0,0 +1,20 @@
+package com.server.productservice.domain.enums;
+
+public enum ProductSortKey {
+    ID_ASC("id asc"),
+    PRICE_ASC("price asc, id asc"),
+    PRICE_DESC("price desc, id asc"),
+    NAME_ASC("name asc, id asc"),
+    NAME_DESC("name desc, id asc"),
+    NEWEST("updated_at desc, id desc");
+
+    private final String orderBy;
+
+    ProductSortKey(String orderBy) {
+        this.orderBy = orderBy;
+    }
+
+    public String orderBy() {
+        return orderBy;
+    }
+}
@@ -0,0 +1,4 @@
+package com.server.productservice.domain.event;
+
+public record CategoryChangedEvent(Long categoryId) {
+}
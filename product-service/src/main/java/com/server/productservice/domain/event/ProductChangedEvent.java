@@ -0,0 +1,7 @@
+package com.server.productservice.domain.event;
+
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.enums.ProductEventType;
+
+public record ProductChangedEvent(String productCode, ProductEventType type, ProductResponse product) {
+}
@@ -0,0 +1,25 @@
+package com.server.productservice.domain.event;
+
+import com.server.productservice.domain.enums.ProductEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductEvent {
+    private ProductEventType type;
+    private String productCode;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private Boolean available;
+    private Long version;
+    // only on PATCHED, whose own code and fields are empty
+    private List<ProductEvent> products;
+}
@@ -0,0 +1,10 @@
+package com.server.productservice.domain.event;
+
+import com.server.productservice.domain.dto.response.ProductResponse;
+
+import java.util.List;
+
+// One event for a bulk write (a patch, an import batch, a category rename), carrying the
+// products as they are after it.
+public record ProductsPatchedEvent(List<ProductResponse> products) {
+}
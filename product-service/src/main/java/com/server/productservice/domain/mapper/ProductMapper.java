@@ -0,0 +1,46 @@
+package com.server.productservice.domain.mapper;
+
+import com.server.productservice.domain.dto.request.ProductRequest;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.entity.Product;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductMapper {
+
+    public ProductResponse mapToProductResponse(Product product) {
+        if (product == null) {
+            return null;
+        }
+        return ProductResponse.builder()
+                .id(product.getId())
+                .productCode(product.getCode())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .imageUrl(product.getImageUrl())
+                .category(product.getCategory().getName())
+                .categoryId(product.getCategory().getId())
+                .stockQuantity(product.getStockQuantity())
+                .available(product.getAvailable())
+                .version(product.getVersion())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    public ProductRequest maProductRequest(Product product) {
+        if (product == null) {
+            return null;
+        }
+        return ProductRequest.builder()
+                .productCode(product.getCode())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .imageUrl(product.getImageUrl())
+                .categoryId(product.getCategory().getId())
+                .stockQuantity(product.getStockQuantity())
+                .version(product.getVersion())
+                .build();
+    }
+}
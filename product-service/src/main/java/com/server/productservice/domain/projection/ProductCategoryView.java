@@ -0,0 +1,8 @@
+package com.server.productservice.domain.projection;
+
+public interface ProductCategoryView {
+
+    Long getId();
+
+    Long getCategoryId();
+}
@@ -0,0 +1,22 @@
+package com.server.productservice.domain.projection;
+
+import java.math.BigDecimal;
+
+public interface ProductStockView {
+
+    String getCode();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    String getImageUrl();
+
+    Boolean getAvailable();
+
+    Integer getStockQuantity();
+
+    Integer getHeldQuantity();
+
+    Long getVersion();
+}
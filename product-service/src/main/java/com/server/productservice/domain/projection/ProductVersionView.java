@@ -0,0 +1,8 @@
+package com.server.productservice.domain.projection;
+
+public interface ProductVersionView {
+
+    Long getId();
+
+    Long getVersion();
+}
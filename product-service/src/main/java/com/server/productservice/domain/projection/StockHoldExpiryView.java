@@ -0,0 +1,10 @@
+package com.server.productservice.domain.projection;
+
+import java.time.LocalDateTime;
+
+public interface StockHoldExpiryView {
+
+    Long getId();
+
+    LocalDateTime getExpiresAt();
+}
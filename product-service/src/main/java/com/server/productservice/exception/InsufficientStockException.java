@@ -0,0 +1,7 @@
+package com.server.productservice.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.server.productservice.exception;
+
+// A request that passed bean validation but breaks a rule checked by the service
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.server.productservice.exception;
+
+public class StockHoldNotSupportedException extends RuntimeException {
+    public StockHoldNotSupportedException(String message) {
+        super(message);
+    }
+}
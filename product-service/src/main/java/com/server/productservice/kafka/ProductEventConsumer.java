@@ -0,0 +1,39 @@
+package com.server.productservice.kafka;
+
+import com.server.productservice.cache.ProductCacheEvictionListener;
+import com.server.productservice.config.KafkaProductTopicConfig;
+import com.server.productservice.domain.enums.ProductEventType;
+import com.server.productservice.domain.event.ProductEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+// Local writes evict the product cache as they commit; the ones made by other instances
+// only reach this instance as product events.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductEventConsumer {
+
+    private final ProductCacheEvictionListener productCacheEvictionListener;
+
+    @KafkaListener(topics = KafkaProductTopicConfig.PRODUCT_TOPIC, groupId = "${product.events.group-id}")
+    public void consumeProductEvent(ProductEvent event) {
+        if (event.getType() == ProductEventType.PATCHED) {
+            log.debug("Received product event: PATCHED {} products",
+                    event.getProducts() == null ? 0 : event.getProducts().size());
+            if (event.getProducts() != null) {
+                event.getProducts().forEach(this::evict);
+            }
+            return;
+        }
+        log.debug("Received product event: {} {}", event.getType(), event.getProductCode());
+        evict(event);
+    }
+
+    private void evict(ProductEvent event) {
+        productCacheEvictionListener.evictOlderThan(event.getProductCode(),
+                event.getType() == ProductEventType.DELETED ? null : event.getVersion());
+    }
+}
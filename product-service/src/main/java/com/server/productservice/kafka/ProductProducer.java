@@ -0,0 +1,135 @@
+package com.server.productservice.kafka;
+
+import com.server.productservice.config.KafkaProductTopicConfig;
+import com.server.productservice.config.ProductEventsProperties;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.enums.ProductEventType;
+import com.server.productservice.domain.event.ProductChangedEvent;
+import com.server.productservice.domain.event.ProductEvent;
+import com.server.productservice.domain.event.ProductsPatchedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Events are handed to one publisher thread behind a bounded queue, so a slow or absent
+// broker (each send may block for max.block.ms) never holds up the request that committed
+// the change. One thread keeps the order in which changes committed.
+@Slf4j
+@Service
+public class ProductProducer {
+
+    private final KafkaTemplate<String, ProductEvent> kafkaTemplate;
+    private final int patchBatchSize;
+    private final Counter droppedEvents;
+    private final ThreadPoolExecutor publisher;
+
+    public ProductProducer(KafkaTemplate<String, ProductEvent> kafkaTemplate, ProductEventsProperties properties,
+            MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.patchBatchSize = properties.getPatchBatchSize();
+        this.droppedEvents = Counter.builder("product.events.dropped").register(meterRegistry);
+        this.publisher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "product-events");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    droppedEvents.increment();
+                    log.error("Product event queue is full, dropping an event");
+                });
+        Gauge.builder("product.events.queued", publisher, executor -> executor.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        publisher.shutdown();
+        if (!publisher.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("{} product events were not published before shutdown", publisher.shutdownNow().size());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponse product = event.product();
+        sendProductEvent(ProductEvent.builder()
+                .type(event.type())
+                .productCode(event.productCode())
+                .price(product.getPrice())
+                .stockQuantity(product.getStockQuantity())
+                .available(product.getAvailable())
+                .version(product.getVersion())
+                .build());
+    }
+
+    // A bulk write goes out as a few PATCHED messages of up to patchBatchSize products rather
+    // than one per product, which would flood the queue and the broker. They carry no key:
+    // consumers drop anything older than the version they hold, so order across keys is moot.
+    @TransactionalEventListener
+    public void onProductsPatched(ProductsPatchedEvent event) {
+        List<ProductResponse> products = event.products();
+        for (int from = 0; from < products.size(); from += patchBatchSize) {
+            List<ProductEvent> batch = products.subList(from, Math.min(from + patchBatchSize, products.size()))
+                    .stream()
+                    .map(product -> ProductEvent.builder()
+                            .type(ProductEventType.UPDATED)
+                            .productCode(product.getProductCode())
+                            .price(product.getPrice())
+                            .stockQuantity(product.getStockQuantity())
+                            .available(product.getAvailable())
+                            .version(product.getVersion())
+                            .build())
+                    .toList();
+            sendProductEvent(ProductEvent.builder()
+                    .type(ProductEventType.PATCHED)
+                    .products(batch)
+                    .build());
+        }
+    }
+
+    public void sendProductEvent(ProductEvent productEvent) {
+        publisher.execute(() -> send(productEvent));
+    }
+
+    private void send(ProductEvent productEvent) {
+        log.debug("Sending product event: {} {}", productEvent.getType(), subjectOf(productEvent));
+        Message<ProductEvent> message = MessageBuilder
+                .withPayload(productEvent)
+                .setHeader(KafkaHeaders.TOPIC, KafkaProductTopicConfig.PRODUCT_TOPIC)
+                .setHeader(KafkaHeaders.KEY, productEvent.getProductCode())
+                .build();
+
+        try {
+            kafkaTemplate.send(message)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.error("Failed to send product event for {}: {}", subjectOf(productEvent), ex.getMessage());
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // the catalog write is already committed; a lost event is only logged
+            log.error("Failed to send product event for {}: {}", subjectOf(productEvent), e.getMessage());
+        }
+    }
+
+    private static String subjectOf(ProductEvent productEvent) {
+        return productEvent.getProducts() == null
+                ? productEvent.getProductCode()
+                : productEvent.getProducts().size() + " products";
+    }
+}
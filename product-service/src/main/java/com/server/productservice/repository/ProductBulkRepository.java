@@ -0,0 +1,362 @@
+package com.server.productservice.repository;
+
+import com.server.productservice.domain.dto.request.ProductPatchRequest;
+import com.server.productservice.domain.dto.request.ProductRequest;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductBulkRepository {
+
+    private static final String SELECT_IDS_BY_CODE = "select id, code from products where code in (:codes)";
+
+    // whole code lists go in as one array parameter rather than thousands of binds
+    private static final String SELECT_PRICES_BY_CODES = """
+            select code, price, stock_quantity from products where code = any(cast(? as varchar array))
+            """;
+
+    private static final String SELECT_PRODUCTS_BY_CODES = """
+            select id, code, name, description, price, image_url, category_id, stock_quantity, available,
+                   version, updated_at
+              from products
+             where code = any(cast(? as varchar array))
+            """;
+
+    private static final String SELECT_MAX_ID = "select coalesce(max(id), 0) from products";
+
+    private static final String NEXT_ID = "select nextval('" + Product.ID_SEQUENCE + "')";
+
+    // moves the sequence on by that many values in one round trip
+    private static final String SKIP_IDS_POSTGRES =
+            "select max(nextval('" + Product.ID_SEQUENCE + "')) from generate_series(1, ?)";
+
+    private static final String LOCK_ID_SEQUENCE = "select pg_advisory_lock(hashtext('" + Product.ID_SEQUENCE + "'))";
+
+    private static final String UNLOCK_ID_SEQUENCE =
+            "select pg_advisory_unlock(hashtext('" + Product.ID_SEQUENCE + "'))";
+
+    // One statement per import batch, with the rows as parallel arrays like the patch below.
+    // The insert-or-update is decided by the unique code itself, so a concurrent import or create
+    // of the same code updates that row instead of failing the batch. xmax is 0 only for rows
+    // this statement inserted.
+    private static final String UPSERT_PRODUCTS_POSTGRES = """
+            insert into products as p (id, code, name, description, price, image_url, stock_quantity, available,
+                                       category_id, version, created_at, updated_at)
+            select v.id, v.code, v.name, v.description, v.price, v.image_url, v.stock_quantity, v.stock_quantity > 0,
+                   v.category_id, 0, current_timestamp, current_timestamp
+              from unnest(cast(? as bigint array), cast(? as varchar array), cast(? as varchar array),
+                          cast(? as varchar array), cast(? as numeric array), cast(? as varchar array),
+                          cast(? as integer array), cast(? as bigint array))
+                   as v(id, code, name, description, price, image_url, stock_quantity, category_id)
+            on conflict (code) do update
+               set name = excluded.name,
+                   description = excluded.description,
+                   price = excluded.price,
+                   image_url = excluded.image_url,
+                   stock_quantity = excluded.stock_quantity,
+                   available = excluded.available,
+                   category_id = excluded.category_id,
+                   updated_at = current_timestamp,
+                   version = p.version + 1
+            returning p.id, p.code, p.xmax = 0 as inserted
+            """;
+
+    // same upsert for databases without ON CONFLICT, such as H2 in tests
+    private static final String UPSERT_PRODUCTS_MERGE = """
+            merge into products p
+            using (select * from unnest(cast(? as bigint array), cast(? as varchar array), cast(? as varchar array),
+                                        cast(? as varchar array), cast(? as numeric array), cast(? as varchar array),
+                                        cast(? as integer array), cast(? as bigint array)))
+                  as v(id, code, name, description, price, image_url, stock_quantity, category_id)
+               on p.code = v.code
+             when matched then update
+               set name = v.name,
+                   description = v.description,
+                   price = v.price,
+                   image_url = v.image_url,
+                   stock_quantity = v.stock_quantity,
+                   available = v.stock_quantity > 0,
+                   category_id = v.category_id,
+                   updated_at = current_timestamp,
+                   version = p.version + 1
+             when not matched then insert (id, code, name, description, price, image_url, stock_quantity, available,
+                                           category_id, version, created_at, updated_at)
+               values (v.id, v.code, v.name, v.description, v.price, v.image_url, v.stock_quantity,
+                       v.stock_quantity > 0, v.category_id, 0, current_timestamp, current_timestamp)
+            """;
+
+    private static final String TOUCH_CATEGORY_PRODUCTS = """
+            update products
+               set updated_at = current_timestamp,
+                   version = version + 1
+             where category_id = ?
+            """;
+
+    // One statement for the whole patch: the rows travel as three parallel arrays and are
+    // joined to products by code. Rows that would not change anything are not touched.
+    private static final String PATCH_PRODUCTS_POSTGRES = """
+            update products p
+               set price = coalesce(v.price, p.price),
+                   stock_quantity = coalesce(v.stock_quantity, p.stock_quantity),
+                   available = coalesce(v.stock_quantity, p.stock_quantity) > 0,
+                   updated_at = current_timestamp,
+                   version = p.version + 1
+              from unnest(cast(? as varchar array), cast(? as numeric array), cast(? as integer array)) as v(code, price, stock_quantity)
+             where p.code = v.code
+               and (v.price <> p.price or v.stock_quantity <> p.stock_quantity)
+            """;
+
+    // same join for databases without UPDATE ... FROM, such as H2 in tests
+    private static final String PATCH_PRODUCTS_MERGE = """
+            merge into products p
+            using (select * from unnest(cast(? as varchar array), cast(? as numeric array), cast(? as integer array)))
+                  as v(code, price, stock_quantity)
+               on p.code = v.code
+             when matched and (v.price <> p.price or v.stock_quantity <> p.stock_quantity) then update
+               set price = coalesce(v.price, p.price),
+                   stock_quantity = coalesce(v.stock_quantity, p.stock_quantity),
+                   available = coalesce(v.stock_quantity, p.stock_quantity) > 0,
+                   updated_at = current_timestamp,
+                   version = p.version + 1
+            """;
+
+    // Available-only listings page and stream by id; a partial index keeps those reads off the
+    // sold-out rows. Built concurrently so startup does not block writes on a large table.
+    private static final String CREATE_AVAILABLE_INDEX =
+            "create index concurrently idx_products_available_id on products (id) where available";
+
+    private static final String DROP_AVAILABLE_INDEX = "drop index concurrently if exists idx_products_available_id";
+
+    // no row when the index does not exist; false while it is being built or after a failed build
+    private static final String SELECT_AVAILABLE_INDEX_VALID =
+            "select indisvalid from pg_index where indexrelid = to_regclass('idx_products_available_id')";
+
+    private static final String TRY_LOCK_AVAILABLE_INDEX =
+            "select pg_try_advisory_lock(hashtext('idx_products_available_id'))";
+
+    private static final String UNLOCK_AVAILABLE_INDEX =
+            "select pg_advisory_unlock(hashtext('idx_products_available_id'))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile String databaseName;
+    private volatile boolean idSequenceAligned;
+
+    public Map<String, Long> findIdsByCode(Collection<String> codes) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(SELECT_IDS_BY_CODE, Map.of("codes", codes), row -> {
+            ids.put(row.getString("code"), row.getLong("id"));
+        });
+        return ids;
+    }
+
+    public Map<String, PriceAndStock> findPricesByCodes(List<String> codes) {
+        Map<String, PriceAndStock> prices = new HashMap<>();
+        jdbcTemplate.getJdbcTemplate().query(SELECT_PRICES_BY_CODES,
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("varchar", codes.toArray())),
+                row -> {
+                    prices.put(row.getString("code"),
+                            new PriceAndStock(row.getBigDecimal("price"), row.getInt("stock_quantity")));
+                });
+        return prices;
+    }
+
+    // the category name is filled in by the caller from the category snapshot
+    public List<ProductResponse> findResponsesByCodes(List<String> codes) {
+        return jdbcTemplate.getJdbcTemplate().query(SELECT_PRODUCTS_BY_CODES,
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("varchar", codes.toArray())),
+                (row, rowNum) -> {
+                    Timestamp updatedAt = row.getTimestamp("updated_at");
+                    return ProductResponse.builder()
+                            .id(row.getLong("id"))
+                            .productCode(row.getString("code"))
+                            .name(row.getString("name"))
+                            .description(row.getString("description"))
+                            .price(row.getBigDecimal("price"))
+                            .imageUrl(row.getString("image_url"))
+                            .categoryId(row.getObject("category_id", Long.class))
+                            .stockQuantity(row.getInt("stock_quantity"))
+                            .available(row.getBoolean("available"))
+                            .version(row.getLong("version"))
+                            .updatedAt(updatedAt == null ? null : updatedAt.toLocalDateTime())
+                            .build();
+                });
+    }
+
+    // JPA index definitions cannot carry a predicate, and H2 has no partial indexes.
+    // A concurrent build that fails leaves an invalid index behind, which "if not exists" would
+    // skip for good, so an invalid one is dropped and built again. The session-level advisory
+    // lock keeps an instance starting alongside from dropping a build still in progress; that
+    // instance returns false and leaves the index to the one holding the lock.
+    public boolean createAvailableIndex() {
+        if (!isPostgres()) {
+            return false;
+        }
+        return jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Boolean.TRUE.equals(session.queryForObject(TRY_LOCK_AVAILABLE_INDEX, Boolean.class))) {
+                return false;
+            }
+            try {
+                List<Boolean> valid = session.queryForList(SELECT_AVAILABLE_INDEX_VALID, Boolean.class);
+                if (!valid.isEmpty() && valid.get(0)) {
+                    return true;
+                }
+                if (!valid.isEmpty()) {
+                    session.execute(DROP_AVAILABLE_INDEX);
+                }
+                session.execute(CREATE_AVAILABLE_INDEX);
+                return true;
+            } finally {
+                session.queryForObject(UNLOCK_AVAILABLE_INDEX, Boolean.class);
+            }
+        });
+    }
+
+    // Products created while ids came from an identity column can sit above the sequence.
+    // Called before the first id is allocated; it moves the sequence past them with nextval
+    // only, never a restart, so ids another instance allocates meanwhile stay unique. The
+    // advisory lock keeps instances doing it at the same time from both skipping ahead.
+    public void alignIdSequence() {
+        if (idSequenceAligned) {
+            return;
+        }
+        if (!isPostgres()) {
+            skipAllocatedIds(jdbcTemplate.getJdbcTemplate());
+            idSequenceAligned = true;
+            return;
+        }
+        jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            session.execute(LOCK_ID_SEQUENCE);
+            try {
+                skipAllocatedIds(session);
+            } finally {
+                session.queryForObject(UNLOCK_ID_SEQUENCE, Boolean.class);
+            }
+            return null;
+        });
+        idSequenceAligned = true;
+    }
+
+    // a sequence value v hands out (v - allocationSize, v], so every later block is free once v >= max(id)
+    private void skipAllocatedIds(JdbcTemplate session) {
+        long maxId = session.queryForObject(SELECT_MAX_ID, Long.class);
+        long hi = session.queryForObject(NEXT_ID, Long.class);
+        long blocks = (maxId - hi + Product.ID_ALLOCATION_SIZE - 1) / Product.ID_ALLOCATION_SIZE;
+        if (blocks <= 0) {
+            return;
+        }
+        if (isPostgres()) {
+            session.queryForObject(SKIP_IDS_POSTGRES, Long.class, blocks);
+        } else {
+            for (long i = 0; i < blocks; i++) {
+                session.queryForObject(NEXT_ID, Long.class);
+            }
+        }
+    }
+
+    // Same pooled scheme as the entity's generator: each sequence value v hands out
+    // the block (v - allocationSize, v], so ids never collide with Hibernate's.
+    public List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            long hi = jdbcTemplate.getJdbcTemplate().queryForObject(NEXT_ID, Long.class);
+            for (long id = Math.max(1, hi - Product.ID_ALLOCATION_SIZE + 1); id <= hi && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    // The product representation embeds the category name, so renaming a category
+    // is a new version of each of its products.
+    public int touchCategoryProducts(Long categoryId) {
+        return jdbcTemplate.getJdbcTemplate().update(TOUCH_CATEGORY_PRODUCTS, categoryId);
+    }
+
+    public int patchProducts(List<ProductPatchRequest> patches) {
+        String[] codes = new String[patches.size()];
+        BigDecimal[] prices = new BigDecimal[patches.size()];
+        Integer[] stockQuantities = new Integer[patches.size()];
+        for (int i = 0; i < patches.size(); i++) {
+            codes[i] = patches.get(i).getProductCode();
+            prices[i] = patches.get(i).getPrice();
+            stockQuantities[i] = patches.get(i).getStockQuantity();
+        }
+
+        String sql = isPostgres() ? PATCH_PRODUCTS_POSTGRES : PATCH_PRODUCTS_MERGE;
+        return jdbcTemplate.getJdbcTemplate().update(sql, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setArray(1, connection.createArrayOf("varchar", codes));
+            statement.setArray(2, connection.createArrayOf("numeric", prices));
+            statement.setArray(3, connection.createArrayOf("integer", stockQuantities));
+        });
+    }
+
+    // Each product comes with a freshly allocated id, used only if its code is new.
+    public List<UpsertedProduct> upsertProducts(List<Long> newIds, List<ProductRequest> products) {
+        int size = products.size();
+        Object[][] columns = new Object[8][size];
+        for (int i = 0; i < size; i++) {
+            ProductRequest product = products.get(i);
+            columns[0][i] = newIds.get(i);
+            columns[1][i] = product.getProductCode();
+            columns[2][i] = product.getName();
+            columns[3][i] = product.getDescription();
+            columns[4][i] = product.getPrice();
+            columns[5][i] = product.getImageUrl();
+            columns[6][i] = product.getStockQuantity();
+            columns[7][i] = product.getCategoryId();
+        }
+        String[] types = {"bigint", "varchar", "varchar", "varchar", "numeric", "varchar", "integer", "bigint"};
+        PreparedStatementSetter arrays = statement -> {
+            Connection connection = statement.getConnection();
+            for (int c = 0; c < columns.length; c++) {
+                statement.setArray(c + 1, connection.createArrayOf(types[c], columns[c]));
+            }
+        };
+
+        if (isPostgres()) {
+            return jdbcTemplate.getJdbcTemplate().query(UPSERT_PRODUCTS_POSTGRES, arrays, (row, rowNum) ->
+                    new UpsertedProduct(row.getLong("id"), row.getString("code"), row.getBoolean("inserted")));
+        }
+        List<String> codes = products.stream().map(ProductRequest::getProductCode).toList();
+        Map<String, Long> existing = findIdsByCode(codes);
+        jdbcTemplate.getJdbcTemplate().update(UPSERT_PRODUCTS_MERGE, arrays);
+        List<UpsertedProduct> upserted = new ArrayList<>(size);
+        findIdsByCode(codes).forEach((code, id) -> upserted.add(new UpsertedProduct(id, code, !existing.containsKey(code))));
+        return upserted;
+    }
+
+    public record UpsertedProduct(long id, String code, boolean inserted) {
+    }
+
+    public record PriceAndStock(BigDecimal price, int stockQuantity) {
+    }
+
+    private boolean isPostgres() {
+        if (databaseName == null) {
+            databaseName = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        }
+        return "PostgreSQL".equals(databaseName);
+    }
+}
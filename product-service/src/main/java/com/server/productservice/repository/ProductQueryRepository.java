@@ -0,0 +1,165 @@
+package com.server.productservice.repository;
+
+import com.server.productservice.domain.dto.request.ProductQueryRequest;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Page, total and both facets come back from one statement. Every branch carries its
+// filters in its own where clause so each can use the composite indexes; a facet drops
+// only its own dimension, so picking a category still shows the other categories' counts.
+@Repository
+@RequiredArgsConstructor
+public class ProductQueryRepository {
+
+    private static final String QUERY = """
+            select 'row' as kind, row_number() over (order by %4$s) as row_position,
+                   id, code, name, description, price, image_url, category_id,
+                   stock_quantity, available, version, updated_at,
+                   cast(null as bigint) as facet_key, cast(null as bigint) as hits
+              from (select p.id, p.code, p.name, p.description, p.price, p.image_url, p.category_id,
+                           p.stock_quantity, p.available, p.version, p.updated_at
+                      from products p
+                     where %3$s and %1$s and %2$s
+                     order by %4$s
+                     limit :limit offset :offset) page
+            union all
+            select 'total', %5$s, null, count(*)
+              from products p
+             where %3$s and %1$s and %2$s
+            union all
+            select 'category', %5$s, p.category_id, count(*)
+              from products p
+             where %3$s and %1$s
+             group by p.category_id
+            union all
+            select 'price', %5$s, bucketed.price_bucket, count(*)
+              from (select %6$s as price_bucket
+                      from products p
+                     where %3$s and %2$s) bucketed
+             group by bucketed.price_bucket
+            """;
+
+    private static final String NO_ROW = "null, null, null, null, null, null, null, null, null, null, null, null";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Result query(ProductQueryRequest request, List<BigDecimal> priceBuckets) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("limit", request.getSize())
+                .addValue("offset", (long) request.getPage() * request.getSize());
+
+        List<String> base = new ArrayList<>(List.of("1 = 1"));
+        if (request.getAvailable() != null) {
+            base.add("p.available = :available");
+            params.addValue("available", request.getAvailable());
+        }
+
+        List<String> price = new ArrayList<>(List.of("1 = 1"));
+        if (request.getMinPrice() != null) {
+            price.add("p.price >= :minPrice");
+            params.addValue("minPrice", request.getMinPrice());
+        }
+        if (request.getMaxPrice() != null) {
+            price.add("p.price <= :maxPrice");
+            params.addValue("maxPrice", request.getMaxPrice());
+        }
+
+        String category = "1 = 1";
+        if (request.getCategoryId() != null && !request.getCategoryId().isEmpty()) {
+            category = "p.category_id in (:categoryIds)";
+            params.addValue("categoryIds", request.getCategoryId());
+        }
+
+        StringBuilder bucket = new StringBuilder("case");
+        for (int i = 0; i < priceBuckets.size(); i++) {
+            bucket.append(" when p.price < :bucket").append(i).append(" then ").append(i);
+            params.addValue("bucket" + i, priceBuckets.get(i));
+        }
+        bucket.append(" else ").append(priceBuckets.size()).append(" end");
+
+        String sql = QUERY.formatted(String.join(" and ", price), category, String.join(" and ", base),
+                request.getSort().orderBy(), NO_ROW, bucket);
+
+        Result result = new Result(new TreeMap<>(), new HashMap<>(), new long[priceBuckets.size() + 1]);
+        jdbcTemplate.query(sql, params, row -> {
+            result.collect(row);
+        });
+        return result;
+    }
+
+    public static final class Result {
+
+        private final TreeMap<Long, ProductResponse> rows;
+        private final Map<Long, Long> categoryCounts;
+        private final long[] priceBucketCounts;
+        private long total;
+
+        private Result(TreeMap<Long, ProductResponse> rows, Map<Long, Long> categoryCounts, long[] priceBucketCounts) {
+            this.rows = rows;
+            this.categoryCounts = categoryCounts;
+            this.priceBucketCounts = priceBucketCounts;
+        }
+
+        public List<ProductResponse> rows() {
+            return new ArrayList<>(rows.values());
+        }
+
+        public long total() {
+            return total;
+        }
+
+        public Map<Long, Long> categoryCounts() {
+            return categoryCounts;
+        }
+
+        public long[] priceBucketCounts() {
+            return priceBucketCounts;
+        }
+
+        private void collect(ResultSet row) throws SQLException {
+            switch (row.getString("kind")) {
+                case "row" -> rows.put(row.getLong("row_position"), mapProduct(row));
+                case "total" -> total = row.getLong("hits");
+                case "category" -> {
+                    Long categoryId = row.getObject("facet_key", Long.class);
+                    if (categoryId != null) {
+                        categoryCounts.put(categoryId, row.getLong("hits"));
+                    }
+                }
+                case "price" -> priceBucketCounts[row.getInt("facet_key")] = row.getLong("hits");
+                default -> throw new IllegalStateException("Unexpected row kind " + row.getString("kind"));
+            }
+        }
+
+        // the category name is filled in by the caller from the category snapshot
+        private static ProductResponse mapProduct(ResultSet row) throws SQLException {
+            Timestamp updatedAt = row.getTimestamp("updated_at");
+            return ProductResponse.builder()
+                    .id(row.getLong("id"))
+                    .productCode(row.getString("code"))
+                    .name(row.getString("name"))
+                    .description(row.getString("description"))
+                    .price(row.getBigDecimal("price"))
+                    .imageUrl(row.getString("image_url"))
+                    .categoryId(row.getObject("category_id", Long.class))
+                    .stockQuantity(row.getInt("stock_quantity"))
+                    .available(row.getBoolean("available"))
+                    .version(row.getLong("version"))
+                    .updatedAt(updatedAt == null ? null : updatedAt.toLocalDateTime())
+                    .build();
+        }
+    }
+}
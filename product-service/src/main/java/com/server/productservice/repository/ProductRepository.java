@@ -1,20 +1,84 @@
 package com.server.productservice.repository;
 
+import com.server.productservice.catalog.CatalogVersion;
+import com.server.productservice.domain.dto.response.ProductResponse;
 import com.server.productservice.domain.entity.Product;
+import com.server.productservice.domain.projection.ProductCategoryView;
+import com.server.productservice.domain.projection.ProductCodeVersionView;
+import com.server.productservice.domain.projection.ProductStockView;
+import com.server.productservice.domain.projection.ProductVersionView;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    String SELECT_PRODUCT_RESPONSE = "select new com.server.productservice.domain.dto.response.ProductResponse("
+            + "p.id, p.code, p.name, p.description, p.price, p.imageUrl, c.name, c.id, p.stockQuantity, p.available, p.version, p.updatedAt) "
+            + "from Product p left join p.category c ";
+
     Optional<Product> findByCode(String code);
 
-    List<Product> findByCategoryId(Long categoryId);
+    boolean existsByCode(String code);
 
-    List<Product> findAllByName(String name);
+    Optional<ProductStockView> findStockByCode(String code);
 
-    List<Product> findByAvailableTrue();
+    List<ProductStockView> findStockByCodeIn(Collection<String> codes);
 
-    boolean existsByCode(String code);
+    @Query(SELECT_PRODUCT_RESPONSE + "where p.code in :codes")
+    List<ProductResponse> findResponsesByCodeIn(@Param("codes") Collection<String> codes);
+
+    @Query(SELECT_PRODUCT_RESPONSE + "where p.id in :ids order by p.id")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_PRODUCT_RESPONSE + "where c.id = :categoryId order by p.id")
+    List<ProductResponse> findResponsesByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query(SELECT_PRODUCT_RESPONSE + "where p.name = :name order by p.id")
+    List<ProductResponse> findResponsesByName(@Param("name") String name);
+
+    @Query(SELECT_PRODUCT_RESPONSE + "where p.id > :afterId order by p.id")
+    List<ProductResponse> findResponsePageAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query(SELECT_PRODUCT_RESPONSE + "where p.available = true and p.id > :afterId order by p.id")
+    List<ProductResponse> findAvailableResponsePageAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select p.id as id, p.version as version from Product p where p.id in :ids order by p.id")
+    List<ProductVersionView> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id as id, p.version as version from Product p where p.id > :afterId order by p.id")
+    List<ProductVersionView> findVersionPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select p.id as id, p.version as version from Product p "
+            + "where p.available = true and p.id > :afterId order by p.id")
+    List<ProductVersionView> findAvailableVersionPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select p.code as code, p.version as version from Product p where p.code in :codes")
+    List<ProductCodeVersionView> findVersionsByCodeIn(@Param("codes") Collection<String> codes);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.id as id, p.category.id as categoryId from Product p order by p.id")
+    Stream<ProductCategoryView> streamCategoryIds();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_PRODUCT_RESPONSE + "order by p.id")
+    Stream<ProductResponse> streamResponses();
+
+    @Query("select new com.server.productservice.catalog.CatalogVersion(count(p), coalesce(sum(p.version), 0L)) "
+            + "from Product p")
+    CatalogVersion findCatalogVersion();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_PRODUCT_RESPONSE + "where p.available = true order by p.id")
+    Stream<ProductResponse> streamAvailableResponses();
 }
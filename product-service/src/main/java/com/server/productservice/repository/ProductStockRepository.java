@@ -0,0 +1,158 @@
+package com.server.productservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductStockRepository {
+
+    private static final String DECREMENT_STOCK = """
+            update products
+               set stock_quantity = stock_quantity - ?,
+                   available = stock_quantity - ? > 0,
+                   updated_at = current_timestamp,
+                   version = version + 1
+             where code = ? and stock_quantity - held_quantity >= ?
+            """;
+
+    // units sold from a lease leave stock and held together; a delta that would take either
+    // below zero is refused rather than applied
+    private static final String SETTLE_LEASED_STOCK = """
+            update products
+               set stock_quantity = stock_quantity - ?,
+                   held_quantity = held_quantity - ?,
+                   available = stock_quantity - ? > 0,
+                   updated_at = current_timestamp,
+                   version = version + 1
+             where code = ? and stock_quantity >= ? and held_quantity >= ?
+            """;
+
+    private static final String SELECT_UNHELD_FOR_UPDATE =
+            "select stock_quantity - held_quantity from products where code = ? for update";
+
+    // growing a hold needs that many unheld units; shrinking one always succeeds
+    private static final String ADJUST_HELD = """
+            update products
+               set held_quantity = held_quantity + ?
+             where code = ? and (? <= 0 or stock_quantity - held_quantity >= ?)
+            """;
+
+    private static final String RELEASE_HELD = """
+            update products
+               set held_quantity = greatest(held_quantity - ?, 0)
+             where code = ?
+            """;
+
+    private static final String SELECT_MAX_ID = "select coalesce(max(id), 0) from products";
+
+    private static final String FIND_AVAILABILITY_DRIFT = """
+            select code from products
+             where id > ? and id <= ? and available <> (stock_quantity > 0)
+            """;
+
+    // the drift is checked again under the row lock, so a concurrent stock write wins
+    private static final String REPAIR_AVAILABILITY = """
+            update products
+               set available = stock_quantity > 0,
+                   updated_at = current_timestamp,
+                   version = version + 1
+             where code = ? and available <> (stock_quantity > 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Callers pass the codes sorted so concurrent batches lock rows in the same order.
+    // Returns the codes whose row was not updated: unknown code or not enough unheld stock.
+    public List<String> decrementStock(Map<String, Integer> quantitiesByCode) {
+        List<String> codes = new ArrayList<>(quantitiesByCode.keySet());
+        List<Object[]> args = codes.stream()
+                .map(code -> {
+                    int quantity = quantitiesByCode.get(code);
+                    return new Object[]{quantity, quantity, code, quantity};
+                })
+                .toList();
+
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_STOCK, args);
+
+        List<String> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(codes.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    public boolean adjustHeld(String code, int delta) {
+        return jdbcTemplate.update(ADJUST_HELD, delta, code, delta, delta) > 0;
+    }
+
+    public void releaseHeld(Map<String, Integer> quantitiesByCode) {
+        List<Object[]> args = quantitiesByCode.entrySet().stream()
+                .map(held -> new Object[]{held.getValue(), held.getKey()})
+                .toList();
+
+        jdbcTemplate.batchUpdate(RELEASE_HELD, args);
+    }
+
+    public long findMaxId() {
+        return jdbcTemplate.queryForObject(SELECT_MAX_ID, Long.class);
+    }
+
+    // codes in the id range (fromId, toId] whose available flag disagrees with their stock
+    public List<String> findAvailabilityDrift(long fromId, long toId) {
+        return jdbcTemplate.queryForList(FIND_AVAILABILITY_DRIFT, String.class, fromId, toId);
+    }
+
+    // Returns the codes that were actually repaired.
+    public List<String> repairAvailability(List<String> codes) {
+        int[] updated = jdbcTemplate.batchUpdate(REPAIR_AVAILABILITY, codes.stream()
+                .map(code -> new Object[]{code})
+                .toList());
+
+        List<String> repaired = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                repaired.add(codes.get(i));
+            }
+        }
+        return repaired;
+    }
+
+    // Holds up to wanted unheld units of the code and returns how many that was.
+    public int leaseStock(String code, int wanted) {
+        List<Integer> unheld = jdbcTemplate.queryForList(SELECT_UNHELD_FOR_UPDATE, Integer.class, code);
+        int granted = unheld.isEmpty() ? 0 : Math.min(wanted, Math.max(unheld.getFirst(), 0));
+        if (granted > 0) {
+            adjustHeld(code, granted);
+        }
+        return granted;
+    }
+
+    // Callers pass the codes sorted. Returns the codes whose delta was refused.
+    public List<String> settleLeasedStock(Map<String, Long> deltasByCode) {
+        List<String> codes = new ArrayList<>(deltasByCode.keySet());
+        List<Object[]> args = codes.stream()
+                .map(code -> {
+                    long delta = deltasByCode.get(code);
+                    return new Object[]{delta, delta, delta, code, delta, delta};
+                })
+                .toList();
+
+        int[] updated = jdbcTemplate.batchUpdate(SETTLE_LEASED_STOCK, args);
+
+        List<String> refused = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                refused.add(codes.get(i));
+            }
+        }
+        return refused;
+    }
+}
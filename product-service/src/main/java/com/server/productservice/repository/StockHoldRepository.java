@@ -0,0 +1,62 @@
+package com.server.productservice.repository;
+
+import com.server.productservice.domain.entity.StockHold;
+import com.server.productservice.domain.projection.StockHoldExpiryView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    List<StockHold> findByCartIdOrderByProductCode(Long cartId);
+
+    List<StockHold> findByCartIdAndProductCodeIn(Long cartId, Collection<String> productCodes);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from StockHold h where h.cartId = :cartId and h.productCode = :productCode")
+    Optional<StockHold> findForUpdate(@Param("cartId") Long cartId, @Param("productCode") String productCode);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from StockHold h where h.cartId = :cartId and h.productCode in :productCodes order by h.productCode")
+    List<StockHold> findForUpdate(@Param("cartId") Long cartId, @Param("productCodes") Collection<String> productCodes);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from StockHold h where h.cartId = :cartId order by h.productCode")
+    List<StockHold> findForUpdate(@Param("cartId") Long cartId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from StockHold h where h.productCode in :productCodes order by h.productCode, h.cartId")
+    List<StockHold> findForUpdateByProductCodeIn(@Param("productCodes") Collection<String> productCodes);
+
+    // a hold renewed after it was scheduled has a later expiry and is left alone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from StockHold h where h.id in :ids and h.expiresAt <= :now order by h.productCode")
+    List<StockHold> findExpiredForUpdate(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("select h.id from StockHold h where h.expiresAt <= :now order by h.expiresAt")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select h.id as id, h.expiresAt as expiresAt from StockHold h")
+    Stream<StockHoldExpiryView> streamExpiries();
+
+    @Modifying
+    @Query("delete from StockHold h where h.productCode = :productCode")
+    void deleteByProductCode(@Param("productCode") String productCode);
+}
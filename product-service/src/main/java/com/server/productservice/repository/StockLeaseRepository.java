@@ -0,0 +1,35 @@
+package com.server.productservice.repository;
+
+import com.server.productservice.domain.entity.StockLease;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// Lease rows are locked before the product rows they cover, in product code order.
+@Repository
+public interface StockLeaseRepository extends JpaRepository<StockLease, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from StockLease l where l.owner = :owner and l.productCode in :productCodes order by l.productCode")
+    List<StockLease> findForUpdate(@Param("owner") String owner, @Param("productCodes") Collection<String> productCodes);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from StockLease l where l.owner = :owner order by l.productCode")
+    List<StockLease> findForUpdate(@Param("owner") String owner);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from StockLease l where l.expiresAt <= :now order by l.productCode, l.owner")
+    List<StockLease> findExpiredForUpdate(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from StockLease l where l.productCode = :productCode")
+    void deleteByProductCode(@Param("productCode") String productCode);
+}
@@ -0,0 +1,237 @@
+package com.server.productservice.search;
+
+import com.server.productservice.catalog.CatalogVersion;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.dto.response.ProductSearchResponse;
+import com.server.productservice.domain.enums.ProductEventType;
+import com.server.productservice.domain.event.ProductChangedEvent;
+import com.server.productservice.domain.event.ProductsPatchedEvent;
+import com.server.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, IndexedProduct> products = new HashMap<>();
+    private NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private volatile CatalogVersion builtVersion;
+
+    // Built aside and swapped in, so searches keep running on the old index meanwhile. The
+    // version is read before the rows, so a change committed during the load is seen by the
+    // next check rather than lost.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<String, IndexedProduct> builtProducts = new HashMap<>();
+        NavigableMap<String, Map<String, Integer>> builtPostings = new TreeMap<>();
+        CatalogVersion version = transactionTemplate.execute(status -> {
+            CatalogVersion current = productRepository.findCatalogVersion();
+            try (Stream<ProductResponse> rows = productRepository.streamResponses()) {
+                rows.forEach(product -> add(builtProducts, builtPostings, product));
+            }
+            return current;
+        });
+
+        lock.writeLock().lock();
+        try {
+            products = builtProducts;
+            postings = builtPostings;
+            builtVersion = version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built: {} products, {} terms in {} ms",
+                builtProducts.size(), builtPostings.size(), System.currentTimeMillis() - start);
+    }
+
+    // Local writes are applied as they commit; this picks up the ones made by other instances.
+    @Scheduled(fixedDelayString = "${product.catalog.refresh-interval-ms:30000}",
+            initialDelayString = "${product.catalog.refresh-interval-ms:30000}")
+    public void refreshIfChanged() {
+        if (builtVersion != null && !productRepository.findCatalogVersion().equals(builtVersion)) {
+            log.debug("Catalog changed elsewhere, rebuilding the search index");
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.productCode());
+            if (event.type() != ProductEventType.DELETED && event.product() != null) {
+                add(event.product());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductsPatched(ProductsPatchedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (ProductResponse product : event.products()) {
+                remove(product.getProductCode());
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductSearchResponse search(String query, int page, int size) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return ProductSearchResponse.builder().content(List.of()).page(page).size(size).build();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map.Entry<String, Integer>> hits = rank(tokens);
+            int from = Math.min(page * size, hits.size());
+            int to = Math.min(from + size, hits.size());
+            List<ProductResponse> content = hits.subList(from, to)
+                    .stream()
+                    .map(hit -> products.get(hit.getKey()).product())
+                    .toList();
+
+            return ProductSearchResponse.builder()
+                    .content(content)
+                    .page(page)
+                    .size(size)
+                    .totalHits(hits.size())
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        List<String> tokens = tokenize(prefix);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return rank(tokens)
+                    .stream()
+                    .map(hit -> products.get(hit.getKey()).product().getName())
+                    .distinct()
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every token must match; the last one also matches as a prefix so the
+    // query can be used while the user is still typing.
+    private List<Map.Entry<String, Integer>> rank(List<String> tokens) {
+        Map<String, Integer> scores = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            boolean last = i == tokens.size() - 1;
+            Map<String, Integer> tokenScores = score(tokens.get(i), last);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((code, score) -> score + tokenScores.get(code));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Map.Entry<String, Integer>> hits = new ArrayList<>(scores.entrySet());
+        hits.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(hit -> products.get(hit.getKey()).product().getName()));
+        return hits;
+    }
+
+    private Map<String, Integer> score(String token, boolean prefix) {
+        Map<String, Integer> scores = new HashMap<>();
+        Map<String, Map<String, Integer>> terms = prefix && token.length() >= MIN_PREFIX_LENGTH
+                ? postings.subMap(token, true, token + Character.MAX_VALUE, false)
+                : Optional.ofNullable(postings.get(token)).map(p -> Map.of(token, p)).orElse(Map.of());
+
+        terms.forEach((term, docs) -> {
+            // an exact term beats a completion of it
+            int boost = term.equals(token) ? 2 : 1;
+            docs.forEach((code, weight) -> scores.merge(code, weight * boost, Math::max));
+        });
+        return scores;
+    }
+
+    private void add(ProductResponse product) {
+        add(products, postings, product);
+    }
+
+    private static void add(Map<String, IndexedProduct> products, NavigableMap<String, Map<String, Integer>> postings,
+            ProductResponse product) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(product.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Math::max));
+        tokenize(product.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Math::max));
+
+        weights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getProductCode(), weight));
+        products.put(product.getProductCode(), new IndexedProduct(product, weights.keySet()));
+    }
+
+    private void remove(String productCode) {
+        IndexedProduct indexed = products.remove(productCode);
+        if (indexed == null) {
+            return;
+        }
+        for (String term : indexed.terms()) {
+            Map<String, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(productCode);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+
+        return Arrays.stream(normalized.split("[^\\p{Alnum}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private record IndexedProduct(ProductResponse product, Set<String> terms) {
+    }
+}
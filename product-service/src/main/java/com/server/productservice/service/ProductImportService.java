@@ -0,0 +1,13 @@
+package com.server.productservice.service;
+
+import com.server.productservice.domain.dto.response.ProductImportResponse;
+import com.server.productservice.domain.enums.ProductImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    ProductImportResponse importProducts(InputStream input, ProductImportFormat format, Integer batchSize)
+            throws IOException;
+}
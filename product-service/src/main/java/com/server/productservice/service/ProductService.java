@@ -1,9 +1,22 @@
 package com.server.productservice.service;
 
+import com.server.productservice.domain.dto.request.AvailabilityRequest;
+import com.server.productservice.domain.dto.request.ProductPatchRequest;
+import com.server.productservice.domain.dto.request.ProductQueryRequest;
 import com.server.productservice.domain.dto.request.ProductRequest;
+import com.server.productservice.domain.dto.request.PurchaseRequest;
+import com.server.productservice.domain.dto.response.AvailabilityResponse;
+import com.server.productservice.domain.dto.response.ProductBatchResponse;
+import com.server.productservice.domain.dto.response.ProductPageResponse;
+import com.server.productservice.domain.dto.response.ProductPatchResponse;
+import com.server.productservice.domain.dto.response.ProductQueryResponse;
 import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.dto.response.ProductSearchResponse;
+import com.server.productservice.domain.dto.response.PurchaseResponse;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
@@ -11,17 +24,41 @@ public interface ProductService {
 
     ProductResponse getProduct(String productCode);
 
-    List<ProductResponse> getAllProducts();
+    ProductBatchResponse getProductsByCodes(List<String> productCodes);
+
+    Map<String, Long> getVersionsByCodes(List<String> productCodes);
+
+    ProductPageResponse getAllProducts(Long afterId, int size);
+
+    String getAllProductsETag(Long afterId, int size);
+
+    void streamProducts(boolean availableOnly, Consumer<ProductResponse> consumer);
 
     List<ProductResponse> getProductsByCategoryId(Long categoryId);
 
+    String getProductsByCategoryIdETag(Long categoryId);
+
     List<ProductResponse> getAllProductsByName(String productName);
 
-    List<ProductResponse> getAllAvailableTrue();
+    ProductSearchResponse searchProducts(String query, int page, int size);
+
+    List<String> suggestProducts(String prefix, int limit);
+
+    ProductQueryResponse queryProducts(ProductQueryRequest request);
+
+    ProductPageResponse getAllAvailableTrue(Long afterId, int size);
+
+    String getAllAvailableTrueETag(Long afterId, int size);
 
     ProductRequest updateProduct(Long id, ProductRequest request);
 
+    ProductPatchResponse patchProducts(List<ProductPatchRequest> patches);
+
     void deleteProductById(Long id);
 
-    boolean isProductAvailable(String productCode, int quantity);
+    boolean isProductAvailable(String productCode, int quantity, Long cartId);
+
+    List<AvailabilityResponse> checkAvailability(List<AvailabilityRequest> request, Long cartId);
+
+    List<PurchaseResponse> purchaseProducts(List<PurchaseRequest> request, Long cartId);
 }
@@ -0,0 +1,23 @@
+package com.server.productservice.service;
+
+import com.server.productservice.domain.dto.request.StockHoldRequest;
+import com.server.productservice.domain.dto.response.StockHoldResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface StockHoldService {
+
+    StockHoldResponse placeHold(StockHoldRequest request);
+
+    List<StockHoldResponse> getHolds(Long cartId);
+
+    void releaseHold(Long cartId, String productCode);
+
+    void releaseHolds(Long cartId);
+
+    Map<String, Integer> heldByCart(Long cartId, Collection<String> productCodes);
+
+    Map<String, Integer> consumeHolds(Long cartId, Collection<String> productCodes);
+}
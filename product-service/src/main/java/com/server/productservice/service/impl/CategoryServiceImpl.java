@@ -1,18 +1,25 @@
 package com.server.productservice.service.impl;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.server.productservice.catalog.CategoryCatalog;
 import com.server.productservice.domain.dto.request.CategoryRequest;
 import com.server.productservice.domain.dto.response.CategoryResponse;
 import com.server.productservice.domain.entity.Category;
+import com.server.productservice.domain.event.CategoryChangedEvent;
+import com.server.productservice.domain.event.ProductsPatchedEvent;
 import com.server.productservice.exception.ResourceNotFoundException;
 import com.server.productservice.repository.CategoryRepository;
+import com.server.productservice.repository.ProductBulkRepository;
+import com.server.productservice.repository.ProductRepository;
 import com.server.productservice.service.CategoryService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.Objects;
 
 @Slf4j
 @Service
@@ -20,6 +27,10 @@ import java.util.List;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ProductBulkRepository productBulkRepository;
+    private final ProductRepository productRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -35,28 +46,23 @@ public class CategoryServiceImpl implements CategoryService {
                 .build();
 
         Category saveCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saveCategory.getId()));
 
         return mapToCategoryRequest(saveCategory);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public CategoryResponse getCategoryById(Long id) {
         log.info("Getting category: {}", id);
-        Category category = categoryRepository.findById(id)
+        return categoryCatalog.current()
+                .category(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found: " + id));
-
-        return mapToCategoryResponse(category);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategory() {
         log.info("Getting all category");
-        return categoryRepository.findAll()
-                .stream()
-                .map(this::mapToCategoryResponse)
-                .toList();
+        return categoryCatalog.current().categories();
     }
 
     @Override
@@ -67,10 +73,17 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Category is not exists with given id : " + id));
 
+        // products only embed the category name, so a description edit leaves them untouched
+        boolean renamed = !Objects.equals(category.getName(), request.getName());
         category.setName(request.getName());
         category.setDescription(request.getDescription());
 
         Category updatedCategory = categoryRepository.save(category);
+        if (renamed) {
+            productBulkRepository.touchCategoryProducts(id);
+            eventPublisher.publishEvent(new ProductsPatchedEvent(productRepository.findResponsesByCategoryId(id)));
+        }
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
 
         return mapToCategoryRequest(updatedCategory);
     }
@@ -83,6 +96,7 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found: " + id));
 
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
     }
 
     private CategoryRequest mapToCategoryRequest(Category category) {
@@ -94,15 +108,4 @@ public class CategoryServiceImpl implements CategoryService {
                 .description(category.getDescription())
                 .build();
     }
-
-    private CategoryResponse mapToCategoryResponse(Category category) {
-        if (category == null) {
-            return null;
-        }
-        return CategoryResponse.builder()
-                .id(category.getId())
-                .name(category.getName())
-                .description(category.getDescription())
-                .build();
-    }
 }
@@ -0,0 +1,270 @@
+package com.server.productservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.productservice.catalog.CategoryCatalog;
+import com.server.productservice.config.ProductImportProperties;
+import com.server.productservice.domain.dto.request.ProductRequest;
+import com.server.productservice.domain.dto.response.ProductImportBatch;
+import com.server.productservice.domain.dto.response.ProductImportRejection;
+import com.server.productservice.domain.dto.response.ProductImportResponse;
+import com.server.productservice.domain.enums.ProductImportFormat;
+import com.server.productservice.domain.event.ProductsPatchedEvent;
+import com.server.productservice.exception.InvalidRequestException;
+import com.server.productservice.repository.ProductBulkRepository;
+import com.server.productservice.repository.ProductRepository;
+import com.server.productservice.service.ProductImportService;
+import com.server.productservice.stock.HotStockRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private final ProductImportProperties properties;
+    private final ProductBulkRepository productBulkRepository;
+    private final ProductRepository productRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final HotStockRegistry hotStockRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    // Reads one record per line and writes every batchSize valid rows in their own
+    // transaction, so memory stays bounded by the batch whatever the feed size.
+    @Override
+    public ProductImportResponse importProducts(InputStream input, ProductImportFormat format, Integer batchSize)
+            throws IOException {
+        int size = batchSize != null ? batchSize : properties.getBatchSize();
+        log.info("Importing products from {} in batches of {}", format, size);
+        ImportReport report = new ImportReport();
+        productBulkRepository.alignIdSequence();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = format == ProductImportFormat.CSV ? readCsvHeader(reader) : null;
+            long line = header == null ? 0 : 1;
+            Map<String, ImportRow> batch = new LinkedHashMap<>();
+
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                report.rows++;
+
+                ProductRequest product;
+                try {
+                    product = header == null
+                            ? objectMapper.readValue(text, ProductRequest.class)
+                            : objectMapper.convertValue(csvRecord(header, text), ProductRequest.class);
+                } catch (IOException | IllegalArgumentException | InvalidRequestException e) {
+                    report.reject(line, null, "Malformed row: " + causeOf(e));
+                    continue;
+                }
+
+                String problem = validate(product);
+                if (problem != null) {
+                    report.reject(line, product.getProductCode(), problem);
+                    continue;
+                }
+
+                // a code repeated inside one batch keeps its last row
+                batch.put(product.getProductCode(), new ImportRow(line, product));
+                if (batch.size() >= size) {
+                    writeBatch(batch, report);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, report);
+            }
+        }
+
+        ProductImportResponse response = report.toResponse();
+        log.info("Product import finished: {} rows, {} inserted, {} updated, {} rejected in {} ms",
+                response.getRows(), response.getInserted(), response.getUpdated(), response.getRejected(),
+                response.getDurationMs());
+        return response;
+    }
+
+    private void writeBatch(Map<String, ImportRow> batch, ImportReport report) {
+        int number = report.batches.size() + 1;
+        long start = System.nanoTime();
+        ProductImportBatch result;
+        try {
+            result = transactionTemplate.execute(status -> upsert(batch.values()));
+        } catch (DataAccessException e) {
+            String reason = "Batch failed: " + causeOf(e);
+            batch.values().forEach(row -> report.reject(row.line(), row.product().getProductCode(), reason));
+            result = ProductImportBatch.builder().failed(true).build();
+        }
+
+        long nanos = Math.max(System.nanoTime() - start, 1);
+        result.setBatch(number);
+        result.setRows(batch.size());
+        result.setDurationMs(nanos / 1_000_000);
+        result.setRowsPerSecond(batch.size() * 1_000_000_000L / nanos);
+        report.add(result);
+        log.info("Import batch {}: {} rows ({} inserted, {} updated{}) in {} ms, {} rows/s",
+                number, result.getRows(), result.getInserted(), result.getUpdated(),
+                result.isFailed() ? ", failed" : "", result.getDurationMs(), result.getRowsPerSecond());
+    }
+
+    private ProductImportBatch upsert(Iterable<ImportRow> rows) {
+        List<ProductRequest> products = new ArrayList<>();
+        rows.forEach(row -> products.add(row.product()));
+        products.forEach(product -> hotStockRegistry.resetAfterCommit(product.getProductCode()));
+        List<ProductBulkRepository.UpsertedProduct> upserted = productBulkRepository.upsertProducts(
+                productBulkRepository.allocateIds(products.size()), products);
+
+        // one event per batch: per-row events would overflow the producer queue on a large feed
+        List<Long> ids = upserted.stream().map(ProductBulkRepository.UpsertedProduct::id).toList();
+        eventPublisher.publishEvent(new ProductsPatchedEvent(productRepository.findResponsesByIdIn(ids)));
+
+        long inserted = upserted.stream().filter(ProductBulkRepository.UpsertedProduct::inserted).count();
+        return ProductImportBatch.builder()
+                .inserted((int) inserted)
+                .updated(upserted.size() - (int) inserted)
+                .build();
+    }
+
+    private String validate(ProductRequest product) {
+        String violations = validator.validate(product).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+        if (!violations.isEmpty()) {
+            return violations;
+        }
+        if (categoryCatalog.current().category(product.getCategoryId()).isEmpty()) {
+            return "Category not found: " + product.getCategoryId();
+        }
+        return null;
+    }
+
+    private List<String> readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null || header.isBlank()) {
+            throw new InvalidRequestException("CSV import requires a header row");
+        }
+        return splitCsv(header.strip().replace("\uFEFF", ""));
+    }
+
+    private Map<String, String> csvRecord(List<String> header, String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() != header.size()) {
+            throw new InvalidRequestException("expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i);
+            record.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        return record;
+    }
+
+    // RFC 4180 fields within a single line: quoted fields may contain commas and "" escapes.
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidRequestException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String causeOf(Exception e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+
+    private record ImportRow(long line, ProductRequest product) {
+    }
+
+    private class ImportReport {
+
+        private final long start = System.nanoTime();
+        private final List<ProductImportBatch> batches = new ArrayList<>();
+        private final List<ProductImportRejection> rejections = new ArrayList<>();
+        private long rows;
+        private long inserted;
+        private long updated;
+        private long rejected;
+
+        void reject(long line, String productCode, String reason) {
+            rejected++;
+            if (rejections.size() < properties.getMaxReportedRejections()) {
+                rejections.add(ProductImportRejection.builder()
+                        .line(line)
+                        .productCode(productCode)
+                        .reason(reason)
+                        .build());
+            }
+        }
+
+        void add(ProductImportBatch batch) {
+            batches.add(batch);
+            inserted += batch.getInserted();
+            updated += batch.getUpdated();
+        }
+
+        ProductImportResponse toResponse() {
+            long nanos = Math.max(System.nanoTime() - start, 1);
+            return ProductImportResponse.builder()
+                    .rows(rows)
+                    .inserted(inserted)
+                    .updated(updated)
+                    .rejected(rejected)
+                    .durationMs(nanos / 1_000_000)
+                    .rowsPerSecond((inserted + updated) * 1_000_000_000L / nanos)
+                    .batches(batches)
+                    .rejections(rejections)
+                    .build();
+        }
+    }
+}
@@ -1,27 +1,91 @@
 package com.server.productservice.service.impl;
 
+import com.server.datasource.PrimaryReads;
+import com.server.productservice.catalog.CatalogETags;
+import com.server.productservice.catalog.CategoryCatalog;
+import com.server.productservice.catalog.CategorySnapshot;
+import com.server.productservice.config.CacheConfig;
+import com.server.productservice.config.ProductQueryProperties;
+import com.server.productservice.domain.dto.request.AvailabilityRequest;
+import com.server.productservice.domain.dto.request.ProductPatchRequest;
+import com.server.productservice.domain.dto.request.ProductQueryRequest;
 import com.server.productservice.domain.dto.request.ProductRequest;
+import com.server.productservice.domain.dto.request.PurchaseRequest;
+import com.server.productservice.domain.dto.response.AvailabilityResponse;
+import com.server.productservice.domain.dto.response.CategoryFacet;
+import com.server.productservice.domain.dto.response.CategoryResponse;
+import com.server.productservice.domain.dto.response.ProductBatchResponse;
+import com.server.productservice.domain.dto.response.PriceFacet;
+import com.server.productservice.domain.dto.response.ProductPageResponse;
+import com.server.productservice.domain.dto.response.ProductPatchResponse;
+import com.server.productservice.domain.dto.response.ProductQueryResponse;
 import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.dto.response.ProductSearchResponse;
+import com.server.productservice.domain.dto.response.PurchaseResponse;
 import com.server.productservice.domain.entity.Category;
 import com.server.productservice.domain.entity.Product;
+import com.server.productservice.domain.enums.ProductEventType;
+import com.server.productservice.domain.event.ProductChangedEvent;
+import com.server.productservice.domain.event.ProductsPatchedEvent;
+import com.server.productservice.domain.mapper.ProductMapper;
+import com.server.productservice.domain.projection.ProductCodeVersionView;
+import com.server.productservice.domain.projection.ProductStockView;
+import com.server.productservice.exception.InsufficientStockException;
+import com.server.productservice.exception.InvalidRequestException;
 import com.server.productservice.exception.ResourceNotFoundException;
 import com.server.productservice.repository.CategoryRepository;
+import com.server.productservice.repository.ProductBulkRepository;
+import com.server.productservice.repository.ProductQueryRepository;
 import com.server.productservice.repository.ProductRepository;
+import com.server.productservice.repository.ProductStockRepository;
+import com.server.productservice.repository.StockHoldRepository;
+import com.server.productservice.search.ProductSearchIndex;
+import com.server.productservice.stock.HotStockRegistry;
 import com.server.productservice.service.ProductService;
+import com.server.productservice.service.StockHoldService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final int ID_CHUNK_SIZE = 1000;
+
     private final ProductRepository productRepository;
+    private final ProductStockRepository productStockRepository;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex productSearchIndex;
+    private final HotStockRegistry hotStockRegistry;
+    private final CategoryCatalog categoryCatalog;
+    private final ProductQueryRepository productQueryRepository;
+    private final ProductQueryProperties productQueryProperties;
+    private final StockHoldService stockHoldService;
+    private final StockHoldRepository stockHoldRepository;
+    private final ProductMapper productMapper;
+    private final ProductBulkRepository productBulkRepository;
 
     @Override
     @Transactional
@@ -43,62 +107,170 @@ public class ProductServiceImpl implements ProductService {
                 .imageUrl(request.getImageUrl())
                 .category(category)
                 .stockQuantity(request.getStockQuantity())
-                .available(request.getStockQuantity() > 0)
                 .build();
 
-        Product savedProduct = productRepository.save(product);
+        productBulkRepository.alignIdSequence();
+        Product savedProduct = productRepository.saveAndFlush(product);
+        publishChange(ProductEventType.CREATED, savedProduct);
         log.info("Product created successfully: {}", savedProduct.getCode());
 
-        return maProductRequest(savedProduct);
+        return productMapper.maProductRequest(savedProduct);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productCode", sync = true)
     public ProductResponse getProduct(String productCode) {
         log.info("Getting product: {}", productCode);
-        Product product = productRepository.findByCode(productCode)
+        // only runs to fill the shared cache, so it reads what has committed, not what a replica has replayed
+        Product product = PrimaryReads.get(() -> productRepository.findByCode(productCode))
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
 
-        return mapToProductResponse(product);
+        return productMapper.mapToProductResponse(product);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductBatchResponse getProductsByCodes(List<String> productCodes) {
+        Set<String> requested = new LinkedHashSet<>(productCodes);
+        log.info("Getting {} products by code", requested.size());
+
+        List<ProductResponse> products = productRepository.findResponsesByCodeIn(requested);
+        products.forEach(product -> requested.remove(product.getProductCode()));
+
+        return ProductBatchResponse.builder()
+                .products(products)
+                .notFound(List.copyOf(requested))
+                .build();
     }
 
+    // Unknown codes are left out; a consumer compares against the versions it cached.
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAllProducts() {
-        log.info("Getting all products");
-        return productRepository.findAll()
+    public Map<String, Long> getVersionsByCodes(List<String> productCodes) {
+        log.debug("Getting versions of {} products", productCodes.size());
+        Map<String, Long> versionByCode = productRepository.findVersionsByCodeIn(new LinkedHashSet<>(productCodes))
                 .stream()
-                .map(this::mapToProductResponse)
-                .toList();
+                .collect(Collectors.toMap(ProductCodeVersionView::getCode, ProductCodeVersionView::getVersion));
+
+        Map<String, Long> versions = new LinkedHashMap<>();
+        productCodes.stream()
+                .filter(versionByCode::containsKey)
+                .forEach(code -> versions.put(code, versionByCode.get(code)));
+        return versions;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageResponse getAllProducts(Long afterId, int size) {
+        log.info("Getting products after {} (size {})", afterId, size);
+        return mapToProductPage(productRepository.findResponsePageAfter(cursorOf(afterId), Limit.of(size + 1)), size);
+    }
+
+    // size + 1 rows, like the page itself, so a change to hasNext also changes the tag
+    @Override
+    @Transactional(readOnly = true)
+    public String getAllProductsETag(Long afterId, int size) {
+        return CatalogETags.ofVersions(productRepository.findVersionPageAfter(cursorOf(afterId), Limit.of(size + 1)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamProducts(boolean availableOnly, Consumer<ProductResponse> consumer) {
+        log.info("Streaming products (availableOnly={})", availableOnly);
+        try (Stream<ProductResponse> products = availableOnly
+                ? productRepository.streamAvailableResponses()
+                : productRepository.streamResponses()) {
+            products.forEach(consumer);
+        }
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ProductResponse> getProductsByCategoryId(Long categoryId) {
         log.info("Getting products by category: {}", categoryId);
-        return productRepository.findByCategoryId(categoryId)
-                .stream()
-                .map(this::mapToProductResponse)
-                .toList();
+        return findInChunks(categoryCatalog.current().productIds(categoryId), productRepository::findResponsesByIdIn);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getProductsByCategoryIdETag(Long categoryId) {
+        return CatalogETags.ofVersions(
+                findInChunks(categoryCatalog.current().productIds(categoryId), productRepository::findVersionsByIdIn));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ProductResponse> getAllProductsByName(String name) {
         log.info("Getting products by name: {}", name);
-        return productRepository.findAllByName(name)
-                .stream()
-                .map(this::mapToProductResponse)
-                .toList();
+        return productRepository.findResponsesByName(name);
+    }
+
+    @Override
+    public ProductSearchResponse searchProducts(String query, int page, int size) {
+        log.info("Searching products: {}", query);
+        return productSearchIndex.search(query, page, size);
+    }
+
+    @Override
+    public List<String> suggestProducts(String prefix, int limit) {
+        return productSearchIndex.suggest(prefix, limit);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAllAvailableTrue() {
-        return productRepository.findByAvailableTrue()
+    public ProductQueryResponse queryProducts(ProductQueryRequest request) {
+        log.info("Querying products: {}", request);
+        List<BigDecimal> bounds = productQueryProperties.getPriceBuckets();
+        ProductQueryRepository.Result result = productQueryRepository.query(request, bounds);
+        CategorySnapshot categories = categoryCatalog.current();
+
+        List<ProductResponse> content = result.rows();
+        content.forEach(product -> product.setCategory(categoryName(categories, product.getCategoryId())));
+
+        List<CategoryFacet> categoryFacets = result.categoryCounts().entrySet()
                 .stream()
-                .map(this::mapToProductResponse)
+                .map(count -> CategoryFacet.builder()
+                        .categoryId(count.getKey())
+                        .category(categoryName(categories, count.getKey()))
+                        .count(count.getValue())
+                        .build())
+                .sorted(Comparator.comparingLong(CategoryFacet::getCount).reversed()
+                        .thenComparing(CategoryFacet::getCategoryId))
                 .toList();
+
+        long[] bucketCounts = result.priceBucketCounts();
+        List<PriceFacet> priceFacets = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            priceFacets.add(PriceFacet.builder()
+                    .from(i == 0 ? BigDecimal.ZERO : bounds.get(i - 1))
+                    .to(i < bounds.size() ? bounds.get(i) : null)
+                    .count(bucketCounts[i])
+                    .build());
+        }
+
+        return ProductQueryResponse.builder()
+                .content(content)
+                .page(request.getPage())
+                .size(request.getSize())
+                .totalHits(result.total())
+                .categoryFacets(categoryFacets)
+                .priceFacets(priceFacets)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageResponse getAllAvailableTrue(Long afterId, int size) {
+        log.info("Getting available products after {} (size {})", afterId, size);
+        return mapToProductPage(productRepository.findAvailableResponsePageAfter(cursorOf(afterId), Limit.of(size + 1)), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getAllAvailableTrueETag(Long afterId, int size) {
+        return CatalogETags.ofVersions(
+                productRepository.findAvailableVersionPageAfter(cursorOf(afterId), Limit.of(size + 1)));
     }
 
     @Override
@@ -108,6 +280,10 @@ public class ProductServiceImpl implements ProductService {
 
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
+        if (request.getVersion() != null && !request.getVersion().equals(product.getVersion())) {
+            throw new OptimisticLockingFailureException("Product " + id + " was modified: expected version "
+                    + request.getVersion() + " but is at " + product.getVersion());
+        }
 
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -119,12 +295,62 @@ public class ProductServiceImpl implements ProductService {
         product.setImageUrl(request.getImageUrl());
         product.setCategory(category);
         product.setStockQuantity(request.getStockQuantity());
-        product.setAvailable(request.getStockQuantity() > 0);
 
-        Product updated = productRepository.save(product);
+        hotStockRegistry.resetAfterCommit(product.getCode());
+        Product updated = productRepository.saveAndFlush(product);
+        publishChange(ProductEventType.UPDATED, updated);
         log.info("Product updated successfully: {}", id);
 
-        return maProductRequest(updated);
+        return productMapper.maProductRequest(updated);
+    }
+
+    // Repricing and restocking in bulk: one query for the current values, one UPDATE for
+    // the rows that change, one query to re-read those rows and one event for all of them.
+    @Override
+    @Transactional
+    public ProductPatchResponse patchProducts(List<ProductPatchRequest> patches) {
+        log.info("Patching price and stock of {} products", patches.size());
+        Map<String, ProductPatchRequest> patchByCode = new LinkedHashMap<>();
+        for (ProductPatchRequest patch : patches) {
+            if (patch.getPrice() == null && patch.getStockQuantity() == null) {
+                throw new InvalidRequestException("Nothing to patch for product: " + patch.getProductCode());
+            }
+            if (patchByCode.put(patch.getProductCode(), patch) != null) {
+                throw new InvalidRequestException("Product patched more than once: " + patch.getProductCode());
+            }
+        }
+
+        Map<String, ProductBulkRepository.PriceAndStock> current =
+                productBulkRepository.findPricesByCodes(List.copyOf(patchByCode.keySet()));
+        List<String> notFound = patchByCode.keySet().stream()
+                .filter(code -> !current.containsKey(code))
+                .toList();
+        List<ProductPatchRequest> changes = patchByCode.values().stream()
+                .filter(patch -> current.containsKey(patch.getProductCode()))
+                .filter(patch -> changes(patch, current.get(patch.getProductCode())))
+                .toList();
+
+        int updated = 0;
+        if (!changes.isEmpty()) {
+            changes.stream()
+                    .filter(patch -> patch.getStockQuantity() != null)
+                    .forEach(patch -> hotStockRegistry.resetAfterCommit(patch.getProductCode()));
+            updated = productBulkRepository.patchProducts(changes);
+            List<ProductResponse> products = productBulkRepository.findResponsesByCodes(
+                    changes.stream().map(ProductPatchRequest::getProductCode).toList());
+            CategorySnapshot categories = categoryCatalog.current();
+            products.forEach(product -> product.setCategory(categoryName(categories, product.getCategoryId())));
+            eventPublisher.publishEvent(new ProductsPatchedEvent(products));
+        }
+        log.info("Patched {} products, {} unchanged, {} not found",
+                updated, current.size() - updated, notFound.size());
+
+        return ProductPatchResponse.builder()
+                .requested(patches.size())
+                .updated(updated)
+                .unchanged(current.size() - updated)
+                .notFound(notFound)
+                .build();
     }
 
     @Override
@@ -134,48 +360,169 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
 
+        publishChange(ProductEventType.DELETED, product);
+        stockHoldRepository.deleteByProductCode(product.getCode());
         productRepository.delete(product);
+        hotStockRegistry.removeAfterCommit(product.getCode());
     }
 
     @Override
-    @Transactional
-    public boolean isProductAvailable(String productCode, int quantity) {
-        log.info("Checking availability for product {} with quantity {}", productCode, quantity);
-        Product product = productRepository.findByCode(productCode)
+    @Transactional(readOnly = true)
+    public boolean isProductAvailable(String productCode, int quantity, Long cartId) {
+        log.debug("Checking availability for product {} with quantity {}", productCode, quantity);
+        if (hotStockRegistry.isHot(productCode)) {
+            return hotStockRegistry.available(productCode) >= quantity;
+        }
+        ProductStockView stock = productRepository.findStockByCode(productCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
+        int ownHeld = stockHoldService.heldByCart(cartId, List.of(productCode)).getOrDefault(productCode, 0);
 
-        return product.getAvailable() && product.getStockQuantity() >= quantity;
+        return stock.getAvailable() && unheldStock(stock, ownHeld) >= quantity;
     }
 
-    private ProductRequest maProductRequest(Product product) {
-        if (product == null) {
-            return null;
+    @Override
+    @Transactional(readOnly = true)
+    public List<AvailabilityResponse> checkAvailability(List<AvailabilityRequest> request, Long cartId) {
+        log.debug("Checking availability for {} product lines", request.size());
+        Set<String> codes = request.stream()
+                .map(AvailabilityRequest::getProductCode)
+                .collect(Collectors.toSet());
+        // hot SKUs take their stock from the registry, but the row still supplies the version
+        Map<String, ProductStockView> stockByCode = productRepository.findStockByCodeIn(codes)
+                .stream()
+                .collect(Collectors.toMap(ProductStockView::getCode, Function.identity()));
+        Map<String, Integer> ownHeldByCode = stockHoldService.heldByCart(cartId, codes);
+
+        return request.stream()
+                .map(line -> mapToAvailabilityResponse(line, stockByCode.get(line.getProductCode()),
+                        ownHeldByCode.getOrDefault(line.getProductCode(), 0)))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public List<PurchaseResponse> purchaseProducts(List<PurchaseRequest> request, Long cartId) {
+        log.info("Purchasing {} product lines", request.size());
+        Map<String, Integer> quantitiesByCode = request.stream()
+                .collect(Collectors.toMap(PurchaseRequest::getProductCode, PurchaseRequest::getQuantity,
+                        Integer::sum, TreeMap::new));
+
+        Map<String, Integer> hotLines = new TreeMap<>();
+        Map<String, Integer> coldLines = new TreeMap<>();
+        quantitiesByCode.forEach((code, quantity) ->
+                (hotStockRegistry.isHot(code) ? hotLines : coldLines).put(code, quantity));
+
+        // the cart's own holds are released first so the units it reserved are there to buy
+        stockHoldService.consumeHolds(cartId, coldLines.keySet());
+        List<String> rejected = coldLines.isEmpty() ? List.of() : productStockRepository.decrementStock(coldLines);
+        if (!rejected.isEmpty()) {
+            List<String> unknown = rejected.stream()
+                    .filter(code -> !productRepository.existsByCode(code))
+                    .toList();
+            if (!unknown.isEmpty()) {
+                throw new ResourceNotFoundException("Products not found: " + unknown);
+            }
+            throw new InsufficientStockException("Insufficient stock for products: " + rejected);
         }
-        return ProductRequest.builder()
-                .productCode(product.getCode())
-                .name(product.getName())
-                .description(product.getDescription())
-                .price(product.getPrice())
-                .imageUrl(product.getImageUrl())
-                .categoryId(product.getCategory().getId())
-                .stockQuantity(product.getStockQuantity())
-                .build();
+        if (!hotLines.isEmpty() && !hotStockRegistry.reserve(hotLines)) {
+            throw new InsufficientStockException("Insufficient stock for products: " + hotLines.keySet());
+        }
+
+        Map<String, ProductResponse> products = productRepository.findResponsesByCodeIn(quantitiesByCode.keySet())
+                .stream()
+                .collect(Collectors.toMap(ProductResponse::getProductCode, Function.identity()));
+        products.values().forEach(product -> {
+            if (hotLines.containsKey(product.getProductCode())) {
+                int stock = hotStockRegistry.available(product.getProductCode());
+                product.setStockQuantity(stock);
+                product.setAvailable(stock > 0);
+            } else {
+                eventPublisher.publishEvent(
+                        new ProductChangedEvent(product.getProductCode(), ProductEventType.UPDATED, product));
+            }
+        });
+        log.info("Stock reserved for products: {}", quantitiesByCode.keySet());
+
+        return request.stream()
+                .map(line -> mapToPurchaseResponse(products.get(line.getProductCode()), line.getQuantity()))
+                .toList();
     }
 
-    private ProductResponse mapToProductResponse(Product product) {
-        if (product == null) {
-            return null;
+    private static boolean changes(ProductPatchRequest patch, ProductBulkRepository.PriceAndStock current) {
+        return patch.getPrice() != null && patch.getPrice().compareTo(current.price()) != 0
+                || patch.getStockQuantity() != null && patch.getStockQuantity() != current.stockQuantity();
+    }
+
+    private void publishChange(ProductEventType type, Product product) {
+        eventPublisher.publishEvent(
+                new ProductChangedEvent(product.getCode(), type, productMapper.mapToProductResponse(product)));
+    }
+
+    // primary key lookups, chunked to stay well below the bind parameter limit
+    private <T> List<T> findInChunks(List<Long> ids, Function<List<Long>, List<T>> finder) {
+        List<T> rows = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            rows.addAll(finder.apply(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()))));
         }
-        return ProductResponse.builder()
+        return rows;
+    }
+
+    private String categoryName(CategorySnapshot categories, Long categoryId) {
+        return categories.category(categoryId).map(CategoryResponse::getName).orElse(null);
+    }
+
+    private long cursorOf(Long afterId) {
+        return afterId == null ? 0L : afterId;
+    }
+
+    private ProductPageResponse mapToProductPage(List<ProductResponse> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<ProductResponse> content = hasNext ? rows.subList(0, size) : rows;
+
+        return ProductPageResponse.builder()
+                .content(content)
+                .nextCursor(hasNext ? content.getLast().getId() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private AvailabilityResponse mapToAvailabilityResponse(AvailabilityRequest line, ProductStockView stock, int ownHeld) {
+        String code = line.getProductCode();
+        boolean hot = hotStockRegistry.isHot(code);
+        boolean found = stock != null;
+        int stockQuantity = hot ? hotStockRegistry.available(code) : found ? unheldStock(stock, ownHeld) : 0;
+        boolean available = found && stockQuantity >= line.getQuantity() && (hot || stock.getAvailable());
+
+        return AvailabilityResponse.builder()
+                .productCode(code)
+                .name(found ? stock.getName() : null)
+                .price(found ? stock.getPrice() : null)
+                .imageUrl(found ? stock.getImageUrl() : null)
+                .quantity(line.getQuantity())
+                .stockQuantity(stockQuantity)
+                .found(found)
+                .available(available)
+                .version(found ? stock.getVersion() : null)
+                .build();
+    }
+
+    // units not held by other carts; stock may have been lowered below what is held
+    private int unheldStock(ProductStockView stock, int ownHeld) {
+        return Math.max(stock.getStockQuantity() - stock.getHeldQuantity() + ownHeld, 0);
+    }
+
+    private PurchaseResponse mapToPurchaseResponse(ProductResponse product, int quantity) {
+        return PurchaseResponse.builder()
                 .id(product.getId())
-                .productCode(product.getCode())
+                .productCode(product.getProductCode())
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
                 .imageUrl(product.getImageUrl())
-                .category(product.getCategory().getName())
+                .category(product.getCategory())
                 .stockQuantity(product.getStockQuantity())
                 .available(product.getAvailable())
+                .quantity(quantity)
                 .build();
     }
 }
@@ -0,0 +1,148 @@
+package com.server.productservice.service.impl;
+
+import com.server.productservice.config.StockHoldProperties;
+import com.server.productservice.domain.dto.request.StockHoldRequest;
+import com.server.productservice.domain.dto.response.StockHoldResponse;
+import com.server.productservice.domain.entity.StockHold;
+import com.server.productservice.exception.InsufficientStockException;
+import com.server.productservice.exception.ResourceNotFoundException;
+import com.server.productservice.exception.StockHoldNotSupportedException;
+import com.server.productservice.repository.ProductRepository;
+import com.server.productservice.repository.ProductStockRepository;
+import com.server.productservice.repository.StockHoldRepository;
+import com.server.productservice.service.StockHoldService;
+import com.server.productservice.stock.HotStockRegistry;
+import com.server.productservice.stock.StockHoldExpiry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockHoldServiceImpl implements StockHoldService {
+
+    private final StockHoldRepository stockHoldRepository;
+    private final ProductStockRepository productStockRepository;
+    private final ProductRepository productRepository;
+    private final HotStockRegistry hotStockRegistry;
+    private final StockHoldExpiry stockHoldExpiry;
+    private final StockHoldProperties properties;
+
+    // Sets the cart's hold on the product to the requested quantity and restarts its timer.
+    @Override
+    @Transactional
+    public StockHoldResponse placeHold(StockHoldRequest request) {
+        String code = request.getProductCode();
+        log.info("Placing hold of {} x {} for cart {}", request.getQuantity(), code, request.getCartId());
+        if (!hotStockRegistry.acceptsHolds(code)) {
+            throw new StockHoldNotSupportedException("Stock holds are not supported for hot SKU: " + code);
+        }
+
+        StockHold hold = stockHoldRepository.findForUpdate(request.getCartId(), code)
+                .orElseGet(() -> StockHold.builder()
+                        .cartId(request.getCartId())
+                        .productCode(code)
+                        .quantity(0)
+                        .build());
+        int delta = request.getQuantity() - hold.getQuantity();
+        if (delta != 0 && !productStockRepository.adjustHeld(code, delta)) {
+            if (!productRepository.existsByCode(code)) {
+                throw new ResourceNotFoundException("Product not found: " + code);
+            }
+            throw new InsufficientStockException("Insufficient stock to hold product: " + code);
+        }
+
+        hold.setQuantity(request.getQuantity());
+        hold.setExpiresAt(LocalDateTime.now().plus(ttlOf(request)));
+        StockHold saved = stockHoldRepository.save(hold);
+        stockHoldExpiry.scheduleAfterCommit(saved.getId(), saved.getExpiresAt());
+
+        return mapToStockHoldResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockHoldResponse> getHolds(Long cartId) {
+        return stockHoldRepository.findByCartIdOrderByProductCode(cartId)
+                .stream()
+                .map(this::mapToStockHoldResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void releaseHold(Long cartId, String productCode) {
+        log.info("Releasing hold on {} for cart {}", productCode, cartId);
+        StockHold hold = stockHoldRepository.findForUpdate(cartId, productCode)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No hold on product " + productCode + " for cart " + cartId));
+        release(List.of(hold));
+    }
+
+    @Override
+    @Transactional
+    public void releaseHolds(Long cartId) {
+        log.info("Releasing all holds for cart {}", cartId);
+        release(stockHoldRepository.findForUpdate(cartId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> heldByCart(Long cartId, Collection<String> productCodes) {
+        if (cartId == null || productCodes.isEmpty()) {
+            return Map.of();
+        }
+        return stockHoldRepository.findByCartIdAndProductCodeIn(cartId, productCodes)
+                .stream()
+                .collect(Collectors.toMap(StockHold::getProductCode, StockHold::getQuantity));
+    }
+
+    // Gives the cart's held units back to the pool inside the caller's transaction, so
+    // a purchase right after can take them.
+    @Override
+    @Transactional
+    public Map<String, Integer> consumeHolds(Long cartId, Collection<String> productCodes) {
+        if (cartId == null || productCodes.isEmpty()) {
+            return Map.of();
+        }
+        return release(stockHoldRepository.findForUpdate(cartId, productCodes));
+    }
+
+    private Map<String, Integer> release(List<StockHold> holds) {
+        if (holds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Integer> heldByCode = holds.stream()
+                .collect(Collectors.toMap(StockHold::getProductCode, StockHold::getQuantity, Integer::sum, TreeMap::new));
+        stockHoldRepository.deleteAllInBatch(holds);
+        productStockRepository.releaseHeld(heldByCode);
+        return heldByCode;
+    }
+
+    private Duration ttlOf(StockHoldRequest request) {
+        Duration ttl = request.getTtlMinutes() == null
+                ? properties.getDefaultTtl()
+                : Duration.ofMinutes(request.getTtlMinutes());
+        return ttl.compareTo(properties.getMaxTtl()) > 0 ? properties.getMaxTtl() : ttl;
+    }
+
+    private StockHoldResponse mapToStockHoldResponse(StockHold hold) {
+        return StockHoldResponse.builder()
+                .id(hold.getId())
+                .cartId(hold.getCartId())
+                .productCode(hold.getProductCode())
+                .quantity(hold.getQuantity())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+}
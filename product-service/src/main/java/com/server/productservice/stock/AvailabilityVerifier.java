@@ -0,0 +1,90 @@
+package com.server.productservice.stock;
+
+import com.server.productservice.config.AvailabilityProperties;
+import com.server.productservice.domain.enums.ProductEventType;
+import com.server.productservice.domain.event.ProductChangedEvent;
+import com.server.productservice.repository.ProductBulkRepository;
+import com.server.productservice.repository.ProductRepository;
+import com.server.productservice.repository.ProductStockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Every write path sets available together with stock, but rows touched outside the service
+// (manual fixes, restores, older releases) can still disagree. The check walks the table in
+// id chunks, one short transaction each, and repairs what it finds like any other stock update.
+@Slf4j
+@Component
+public class AvailabilityVerifier {
+
+    private final AvailabilityProperties properties;
+    private final ProductBulkRepository productBulkRepository;
+    private final ProductStockRepository productStockRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter repairedProducts;
+
+    public AvailabilityVerifier(AvailabilityProperties properties, ProductBulkRepository productBulkRepository,
+            ProductStockRepository productStockRepository, ProductRepository productRepository,
+            TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.productBulkRepository = productBulkRepository;
+        this.productStockRepository = productStockRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.repairedProducts = Counter.builder("product.availability.repaired").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createAvailableIndex() {
+        try {
+            if (productBulkRepository.createAvailableIndex()) {
+                log.info("Partial index on available products is in place");
+            }
+        } catch (DataAccessException e) {
+            // listings still work, just without the index
+            log.error("Failed to create the partial index on available products: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.availability.verify-interval-ms:3600000}")
+    public void verify() {
+        long maxId = productStockRepository.findMaxId();
+        int repaired = 0;
+        for (long fromId = 0; fromId < maxId; fromId += properties.getVerifyChunkSize()) {
+            repaired += repairChunk(fromId, Math.min(fromId + properties.getVerifyChunkSize(), maxId));
+        }
+        if (repaired > 0) {
+            log.warn("Repaired the available flag of {} products", repaired);
+        } else {
+            log.debug("Available flags match stock for products up to id {}", maxId);
+        }
+    }
+
+    private int repairChunk(long fromId, long toId) {
+        return transactionTemplate.execute(status -> {
+            List<String> drifted = productStockRepository.findAvailabilityDrift(fromId, toId);
+            if (drifted.isEmpty()) {
+                return 0;
+            }
+            List<String> repaired = productStockRepository.repairAvailability(drifted);
+            productRepository.findResponsesByCodeIn(repaired).forEach(product -> eventPublisher.publishEvent(
+                    new ProductChangedEvent(product.getProductCode(), ProductEventType.UPDATED, product)));
+            repairedProducts.increment(repaired.size());
+            log.info("Repaired the available flag of {} products with ids in ({}, {}]", repaired.size(), fromId, toId);
+            return repaired.size();
+        });
+    }
+}
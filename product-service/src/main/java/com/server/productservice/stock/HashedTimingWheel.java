@@ -0,0 +1,145 @@
+package com.server.productservice.stock;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Deadlines are hashed into wheelSize buckets by tick; each bucket keeps its entries
+// in two primitive arrays, so a pending expiry costs 16 bytes and no task object.
+// Entries more than one turn away simply stay in their bucket until their tick comes
+// round. schedule() may be called from any thread, advance() from one thread only.
+class HashedTimingWheel {
+
+    private static final long[] NONE = new long[0];
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final Bucket[] buckets;
+    private final AtomicLong pending = new AtomicLong();
+
+    // Last tick whose bucket has been expired. advance() only moves it forward while holding
+    // the lock of that tick's bucket, and schedule() only adds to a bucket under the same lock
+    // after checking its tick is still ahead of it, so an entry can never land in a bucket
+    // for a tick that has already been expired.
+    private volatile long processedTick;
+
+    HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        int size = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = size - 1;
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.processedTick = tickOf(startMillis);
+    }
+
+    // The entry comes due on the first tick that starts after the deadline, so whoever acts on
+    // it sees the deadline as passed; a deadline already behind the wheel is due on the next tick.
+    void schedule(long id, long deadlineMillis) {
+        long deadlineTick = tickOf(deadlineMillis) + 1;
+        while (true) {
+            long tick = Math.max(deadlineTick, processedTick + 1);
+            Bucket bucket = buckets[(int) (tick & mask)];
+            synchronized (bucket) {
+                if (tick > processedTick) {
+                    bucket.add(id, tick);
+                    pending.incrementAndGet();
+                    return;
+                }
+            }
+            // advance() expired that tick meanwhile; retry against the next one
+        }
+    }
+
+    // Expires every tick up to nowMillis and returns the ids that are due.
+    long[] advance(long nowMillis) {
+        long target = tickOf(nowMillis);
+        long from = processedTick + 1;
+        if (from > target) {
+            return NONE;
+        }
+        // more than a turn behind (a stalled ticker or a clock jump): the last turn visits every
+        // bucket once, and each expires everything up to the tick it is visited for
+        if (target - from >= buckets.length) {
+            from = target - buckets.length + 1;
+        }
+        LongBuffer expired = new LongBuffer();
+        for (long tick = from; tick <= target; tick++) {
+            Bucket bucket = buckets[(int) (tick & mask)];
+            synchronized (bucket) {
+                bucket.expire(tick, expired);
+                processedTick = tick;
+            }
+        }
+        pending.addAndGet(-expired.size);
+        return expired.toArray();
+    }
+
+    long pending() {
+        return pending.get();
+    }
+
+    private long tickOf(long millis) {
+        return Math.floorDiv(millis - startMillis, tickMillis);
+    }
+
+    private static final class Bucket {
+
+        private static final int INITIAL_CAPACITY = 8;
+        private static final int MIN_SHRINK_CAPACITY = 64;
+
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private long[] ticks = new long[INITIAL_CAPACITY];
+        private int size;
+
+        void add(long id, long tick) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                ticks = Arrays.copyOf(ticks, size * 2);
+            }
+            ids[size] = id;
+            ticks[size] = tick;
+            size++;
+        }
+
+        void expire(long tick, LongBuffer expired) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (ticks[i] <= tick) {
+                    expired.add(ids[i]);
+                } else {
+                    ids[kept] = ids[i];
+                    ticks[kept] = ticks[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            // Give back the memory of a burst once it has drained, halving at most once per
+            // visit: a bucket that refills every turn keeps its arrays instead of being
+            // reallocated on each expire.
+            if (ids.length > MIN_SHRINK_CAPACITY && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+                ticks = Arrays.copyOf(ticks, ids.length);
+            }
+        }
+    }
+
+    private static final class LongBuffer {
+
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package com.server.productservice.stock;
+
+import com.server.productservice.config.HotSkuProperties;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.entity.StockHold;
+import com.server.productservice.domain.entity.StockLease;
+import com.server.productservice.domain.enums.ProductEventType;
+import com.server.productservice.domain.event.ProductChangedEvent;
+import com.server.productservice.domain.projection.ProductStockView;
+import com.server.productservice.repository.ProductRepository;
+import com.server.productservice.repository.ProductStockRepository;
+import com.server.productservice.repository.StockHoldRepository;
+import com.server.productservice.repository.StockLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Each instance sells a hot SKU from its own lease: units moved into held_quantity under a
+// stock_leases row, so several instances together can never sell more than the pool holds.
+// The flush settles what was sold against the lease, renews it and tops it up; available()
+// is this instance's remaining slice. Leases of an instance that went away expire after
+// lease-ttl-ms and their units go back to the pool.
+@Slf4j
+@Component
+public class HotStockRegistry {
+
+    private final HotSkuProperties properties;
+    private final ProductRepository productRepository;
+    private final ProductStockRepository productStockRepository;
+    private final StockHoldRepository stockHoldRepository;
+    private final StockLeaseRepository stockLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter refusedUnits;
+
+    private final Map<String, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    // per code rather than per counter, so a reset and a flush agree on it across the swap
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    public HotStockRegistry(HotSkuProperties properties, ProductRepository productRepository,
+            ProductStockRepository productStockRepository, StockHoldRepository stockHoldRepository,
+            StockLeaseRepository stockLeaseRepository, TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.productRepository = productRepository;
+        this.productStockRepository = productStockRepository;
+        this.stockHoldRepository = stockHoldRepository;
+        this.stockLeaseRepository = stockLeaseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.refusedUnits = Counter.builder("product.hot-sku.refused.units").register(meterRegistry);
+    }
+
+    // Purchases of hot lines never consume holds, so holds placed before a code was made hot
+    // are handed back to the pool here, as is anything this owner leased before a restart.
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (properties.getCodes().isEmpty()) {
+            return;
+        }
+        Map<String, Integer> granted = transactionTemplate.execute(status -> {
+            List<StockHold> holds = stockHoldRepository.findForUpdateByProductCodeIn(properties.getCodes());
+            if (!holds.isEmpty()) {
+                Map<String, Integer> heldByCode = new TreeMap<>();
+                holds.forEach(hold -> heldByCode.merge(hold.getProductCode(), hold.getQuantity(), Integer::sum));
+                stockHoldRepository.deleteAllInBatch(holds);
+                productStockRepository.releaseHeld(heldByCode);
+                log.warn("Released {} stock holds on hot SKUs: {}", holds.size(), heldByCode);
+            }
+            releaseLeases(stockLeaseRepository.findForUpdate(properties.getOwner()));
+
+            Map<String, StockLease> leases = new HashMap<>();
+            Map<String, Integer> grants = new TreeMap<>();
+            LocalDateTime expiresAt = leaseExpiry();
+            productRepository.findStockByCodeIn(properties.getCodes()).stream()
+                    .map(ProductStockView::getCode)
+                    .sorted()
+                    .forEach(code -> grants.put(code, extendLease(code, properties.getLeaseSize(), leases, expiresAt)));
+            stockLeaseRepository.saveAll(leases.values());
+            return grants;
+        });
+        granted.forEach((code, units) -> counters.put(code, new StripedStockCounter(units, properties.getStripes())));
+        properties.getCodes().stream()
+                .filter(code -> !counters.containsKey(code))
+                .forEach(code -> log.warn("Hot SKU {} does not exist and is ignored", code));
+        log.info("Hot SKU mode enabled for {}, leased as {}: {}", counters.keySet(), properties.getOwner(), granted);
+    }
+
+    // Checks the configured codes rather than the counters, so holds are refused from startup
+    // and none can slip in before reconcile() has released the old ones.
+    public boolean acceptsHolds(String productCode) {
+        return !properties.getCodes().contains(productCode);
+    }
+
+    public boolean isHot(String productCode) {
+        return counters.containsKey(productCode);
+    }
+
+    public int available(String productCode) {
+        StripedStockCounter counter = counters.get(productCode);
+        return counter == null ? 0 : counter.available();
+    }
+
+    // All or nothing. Inside a transaction the units are given back if it does not commit.
+    public boolean reserve(Map<String, Integer> quantitiesByCode) {
+        Map<StripedStockCounter, Integer> reserved = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> line : quantitiesByCode.entrySet()) {
+            StripedStockCounter counter = reserveOne(line.getKey(), line.getValue());
+            if (counter == null) {
+                reserved.forEach(StripedStockCounter::release);
+                return false;
+            }
+            reserved.put(counter, line.getValue());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reserved.forEach(StripedStockCounter::release);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    // Call before the new stock is written. This owner's lease on the code is handed back in
+    // the same transaction and the counter starts empty, to be leased from the new stock on
+    // the next flush. The code stays locked against flushes until the transaction completes,
+    // so a delta drained before the write can never land on the new absolute stock. Units
+    // sold on the old counter and not yet flushed are replaced by it.
+    public void resetAfterCommit(String productCode) {
+        if (!isHot(productCode)) {
+            return;
+        }
+        ReentrantLock lock = lockFor(productCode);
+        try {
+            if (!lock.tryLock(properties.getResetLockTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new CannotAcquireLockException("Stock of hot product " + productCode
+                        + " is being flushed, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted while locking hot product " + productCode, e);
+        }
+
+        Runnable releaseLease = () -> releaseLeases(
+                stockLeaseRepository.findForUpdate(properties.getOwner(), List.of(productCode)));
+        Runnable reset = () -> {
+            StripedStockCounter previous = counters.put(productCode, new StripedStockCounter(0, properties.getStripes()));
+            if (previous != null) {
+                previous.retire();
+                long discarded = previous.drainPendingDelta();
+                if (discarded != 0) {
+                    log.info("Stock of hot SKU {} reset, discarding {} unflushed units", productCode, discarded);
+                }
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> releaseLease.run());
+                reset.run();
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        try {
+            releaseLease.run();
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reset.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    // every owner's lease goes with the product; other instances find theirs gone on the next flush
+    public void removeAfterCommit(String productCode) {
+        if (isHot(productCode)) {
+            stockLeaseRepository.deleteByProductCode(productCode);
+            runAfterCommit(() -> {
+                StripedStockCounter previous = counters.remove(productCode);
+                if (previous != null) {
+                    previous.retire();
+                }
+            });
+        }
+    }
+
+    // Nothing more is sold here; what was sold is flushed and the rest goes back to the pool.
+    @PreDestroy
+    public void shutdown() {
+        if (counters.isEmpty()) {
+            return;
+        }
+        counters.values().forEach(StripedStockCounter::retire);
+        flush();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    releaseLeases(stockLeaseRepository.findForUpdate(properties.getOwner())));
+        } catch (RuntimeException e) {
+            log.error("Failed to release hot SKU stock leases, they expire on their own: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.hot-sku.flush-interval-ms:1000}")
+    public void flush() {
+        Map<String, Long> deltas = new TreeMap<>();
+        Map<String, StripedStockCounter> locked = new TreeMap<>();
+        // codes being reset are skipped; their units wait for the next cycle or are replaced by the reset
+        counters.forEach((code, counter) -> {
+            ReentrantLock lock = lockFor(code);
+            if (!lock.tryLock()) {
+                return;
+            }
+            if (counters.get(code) != counter) {
+                lock.unlock();
+                return;
+            }
+            locked.put(code, counter);
+            long delta = counter.drainPendingDelta();
+            if (delta != 0) {
+                deltas.put(code, delta);
+            }
+        });
+        if (locked.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> refused = new TreeMap<>();
+        Map<String, Integer> topUps = new HashMap<>();
+        Map<String, Integer> fresh = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> settle(locked, deltas, refused, topUps, fresh));
+            log.debug("Flushed hot SKU stock deltas: {}", deltas);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush hot SKU stock deltas, retrying next cycle: {}", e.getMessage());
+            deltas.forEach((code, delta) -> locked.get(code).restorePendingDelta(delta));
+            locked.keySet().forEach(code -> lockFor(code).unlock());
+            return;
+        }
+
+        try {
+            topUps.forEach((code, units) -> locked.get(code).grant(units));
+            // the old counter's remaining units belonged to the lease just handed back
+            fresh.forEach((code, units) -> {
+                StripedStockCounter previous = counters.put(code, new StripedStockCounter(units, properties.getStripes()));
+                previous.retire();
+            });
+            if (!refused.isEmpty()) {
+                refusedUnits.increment(refused.values().stream().mapToLong(Long::longValue).sum());
+                log.error("Refused hot SKU stock deltas that would take stock below zero: {}",
+                        refused);
+            }
+        } finally {
+            locked.keySet().forEach(code -> lockFor(code).unlock());
+        }
+    }
+
+    // Leases expire when their owner stops flushing, e.g. after a crash.
+    @Scheduled(fixedDelayString = "${product.hot-sku.lease-ttl-ms:30000}")
+    public void releaseExpiredLeases() {
+        if (properties.getCodes().isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    releaseLeases(stockLeaseRepository.findExpiredForUpdate(LocalDateTime.now())));
+        } catch (RuntimeException e) {
+            log.error("Failed to release expired stock leases, retrying next cycle: {}", e.getMessage());
+        }
+    }
+
+    // Runs inside the flush transaction; the maps are only acted on once it commits.
+    private void settle(Map<String, StripedStockCounter> locked, Map<String, Long> deltas, Map<String, Long> refused,
+            Map<String, Integer> topUps, Map<String, Integer> fresh) {
+        Map<String, StockLease> leases = new HashMap<>();
+        stockLeaseRepository.findForUpdate(properties.getOwner(), locked.keySet())
+                .forEach(lease -> leases.put(lease.getProductCode(), lease));
+
+        // units sold beyond what the lease still covers, e.g. after it expired, come out of the
+        // unheld stock instead, and the code starts again from a fresh lease
+        Map<String, Long> settled = new TreeMap<>();
+        Map<String, Integer> lapsed = new TreeMap<>();
+        deltas.forEach((code, delta) -> {
+            StockLease lease = leases.get(code);
+            if (lease != null && lease.getQuantity() >= delta) {
+                settled.put(code, delta);
+            } else {
+                lapsed.put(code, Math.toIntExact(delta));
+            }
+        });
+        lapsed.keySet().forEach(code -> releaseLease(leases, code));
+        productStockRepository.decrementStock(lapsed).forEach(code -> refused.put(code, (long) lapsed.get(code)));
+        productStockRepository.settleLeasedStock(settled).forEach(code -> refused.put(code, settled.remove(code)));
+        settled.forEach((code, delta) -> {
+            StockLease lease = leases.get(code);
+            lease.setQuantity((int) (lease.getQuantity() - delta));
+        });
+
+        LocalDateTime expiresAt = leaseExpiry();
+        Set<String> renewed = new TreeSet<>(lapsed.keySet());
+        renewed.addAll(refused.keySet());
+        renewed.forEach(code -> {
+            releaseLease(leases, code);
+            if (!locked.get(code).isRetired()) {
+                fresh.put(code, extendLease(code, properties.getLeaseSize(), leases, expiresAt));
+            }
+        });
+        locked.forEach((code, counter) -> {
+            int available = counter.available();
+            if (!renewed.contains(code) && !counter.isRetired() && available < properties.getLeaseSize() / 2) {
+                int units = extendLease(code, properties.getLeaseSize() - available, leases, expiresAt);
+                if (units > 0) {
+                    topUps.put(code, units);
+                }
+            }
+        });
+        leases.values().forEach(lease -> lease.setExpiresAt(expiresAt));
+        stockLeaseRepository.saveAll(leases.values());
+
+        Set<String> changed = new TreeSet<>(deltas.keySet());
+        changed.removeAll(refused.keySet());
+        if (!changed.isEmpty()) {
+            List<ProductResponse> products = productRepository.findResponsesByCodeIn(changed);
+            products.forEach(product -> eventPublisher.publishEvent(
+                    new ProductChangedEvent(product.getProductCode(), ProductEventType.UPDATED, product)));
+        }
+    }
+
+    private int extendLease(String productCode, int wanted, Map<String, StockLease> leases, LocalDateTime expiresAt) {
+        int granted = productStockRepository.leaseStock(productCode, wanted);
+        if (granted > 0) {
+            StockLease lease = leases.computeIfAbsent(productCode, code -> StockLease.builder()
+                    .productCode(code)
+                    .owner(properties.getOwner())
+                    .quantity(0)
+                    .expiresAt(expiresAt)
+                    .build());
+            lease.setQuantity(lease.getQuantity() + granted);
+        }
+        return granted;
+    }
+
+    private void releaseLease(Map<String, StockLease> leases, String productCode) {
+        StockLease lease = leases.remove(productCode);
+        if (lease != null) {
+            releaseLeases(List.of(lease));
+        }
+    }
+
+    private void releaseLeases(List<StockLease> leases) {
+        if (leases.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> leasedByCode = new TreeMap<>();
+        leases.forEach(lease -> leasedByCode.merge(lease.getProductCode(), lease.getQuantity(), Integer::sum));
+        stockLeaseRepository.deleteAllInBatch(leases);
+        productStockRepository.releaseHeld(leasedByCode);
+        log.info("Released {} stock leases: {}", leases.size(), leasedByCode);
+    }
+
+    private LocalDateTime leaseExpiry() {
+        return LocalDateTime.now().plus(properties.getLeaseTtlMs(), ChronoUnit.MILLIS);
+    }
+
+    private ReentrantLock lockFor(String productCode) {
+        return locks.computeIfAbsent(productCode, code -> new ReentrantLock());
+    }
+
+    private StripedStockCounter reserveOne(String productCode, int quantity) {
+        while (true) {
+            StripedStockCounter counter = counters.get(productCode);
+            if (counter == null || !counter.tryReserve(quantity)) {
+                return null;
+            }
+            if (!counter.isRetired()) {
+                return counter;
+            }
+            counter.release(quantity);
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
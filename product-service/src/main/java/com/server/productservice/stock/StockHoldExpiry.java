@@ -0,0 +1,155 @@
+package com.server.productservice.stock;
+
+import com.server.productservice.config.StockHoldProperties;
+import com.server.productservice.domain.entity.StockHold;
+import com.server.productservice.domain.projection.StockHoldExpiryView;
+import com.server.productservice.repository.ProductStockRepository;
+import com.server.productservice.repository.StockHoldRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Holds are expired by a timing wheel ticking on its own thread rather than by one
+// scheduled task per hold. The wheel is rebuilt from the holds table on startup; the
+// table stays the source of truth, so a wheel entry for a hold that was released or
+// renewed in the meantime expires nothing.
+@Slf4j
+@Component
+public class StockHoldExpiry {
+
+    private final StockHoldProperties properties;
+    private final StockHoldRepository stockHoldRepository;
+    private final ProductStockRepository productStockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimingWheel wheel;
+    private final Counter expiredHolds;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StockHoldExpiry(StockHoldProperties properties, StockHoldRepository stockHoldRepository,
+            ProductStockRepository productStockRepository, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.stockHoldRepository = stockHoldRepository;
+        this.productStockRepository = productStockRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.wheel = new HashedTimingWheel(properties.getTick().toMillis(), properties.getWheelSize(),
+                System.currentTimeMillis());
+        this.expiredHolds = Counter.builder("stock.holds.expired").register(meterRegistry);
+        Gauge.builder("stock.holds.scheduled", wheel, HashedTimingWheel::pending).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long loaded = transactionTemplate.execute(status -> {
+            try (Stream<StockHoldExpiryView> holds = stockHoldRepository.streamExpiries()) {
+                return holds.peek(hold -> wheel.schedule(hold.getId(), toMillis(hold.getExpiresAt()))).count();
+            }
+        });
+        log.info("Scheduled expiry of {} stock holds", loaded);
+
+        long tick = properties.getTick().toMillis();
+        ticker.scheduleWithFixedDelay(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    public void scheduleAfterCommit(Long holdId, LocalDateTime expiresAt) {
+        long deadline = toMillis(expiresAt);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wheel.schedule(holdId, deadline);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wheel.schedule(holdId, deadline);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${product.holds.sweep-interval-ms:60000}")
+    public void sweep() {
+        List<Long> overdue;
+        do {
+            overdue = stockHoldRepository.findExpiredIds(LocalDateTime.now(), Limit.of(properties.getExpiryBatchSize()));
+            if (!overdue.isEmpty()) {
+                int expired = expire(overdue);
+                log.info("Sweep expired {} overdue stock holds", expired);
+                if (expired == 0) {
+                    return;
+                }
+            }
+        } while (overdue.size() == properties.getExpiryBatchSize());
+    }
+
+    private void tick() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    // A chunk that fails goes back on the wheel for the next tick instead of waiting for the sweep.
+    int expireDue(long nowMillis) {
+        long[] due = wheel.advance(nowMillis);
+        int expired = 0;
+        for (int from = 0; from < due.length; from += properties.getExpiryBatchSize()) {
+            long[] chunk = Arrays.copyOfRange(due, from, Math.min(from + properties.getExpiryBatchSize(), due.length));
+            try {
+                expired += expire(Arrays.stream(chunk).boxed().toList());
+            } catch (RuntimeException e) {
+                log.error("Failed to expire {} stock holds, retrying next tick: {}", chunk.length, e.getMessage());
+                for (long holdId : chunk) {
+                    wheel.schedule(holdId, nowMillis);
+                }
+            }
+        }
+        return expired;
+    }
+
+    private int expire(List<Long> holdIds) {
+        int expired = transactionTemplate.execute(status -> {
+            List<StockHold> holds = stockHoldRepository.findExpiredForUpdate(holdIds, LocalDateTime.now());
+            if (holds.isEmpty()) {
+                return 0;
+            }
+            Map<String, Integer> heldByCode = new TreeMap<>();
+            holds.forEach(hold -> heldByCode.merge(hold.getProductCode(), hold.getQuantity(), Integer::sum));
+
+            stockHoldRepository.deleteAllInBatch(holds);
+            productStockRepository.releaseHeld(heldByCode);
+            return holds.size();
+        });
+        expiredHolds.increment(expired);
+        return expired;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
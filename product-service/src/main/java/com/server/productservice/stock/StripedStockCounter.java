@@ -0,0 +1,96 @@
+package com.server.productservice.stock;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Units are spread over several stripes so concurrent reservations mostly
+// CAS different slots; a reservation may drain more than one stripe.
+class StripedStockCounter {
+
+    private static final int PADDING = 16;
+
+    private final AtomicIntegerArray stripes;
+    private final int stripeCount;
+    private final LongAdder pendingDelta = new LongAdder();
+    private volatile boolean retired;
+
+    StripedStockCounter(int stock, int stripeCount) {
+        this.stripeCount = stripeCount;
+        this.stripes = new AtomicIntegerArray(stripeCount * PADDING);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.set(i * PADDING, stock / stripeCount + (i < stock % stripeCount ? 1 : 0));
+        }
+    }
+
+    boolean tryReserve(int quantity) {
+        int start = homeStripe();
+        int taken = 0;
+        for (int i = 0; i < stripeCount && taken < quantity; i++) {
+            taken += take((start + i) % stripeCount, quantity - taken);
+        }
+        if (taken < quantity) {
+            give(start, taken);
+            return false;
+        }
+        pendingDelta.add(quantity);
+        return true;
+    }
+
+    void release(int quantity) {
+        give(homeStripe(), quantity);
+        pendingDelta.add(-quantity);
+    }
+
+    // adds units that were never sold from this counter, e.g. a lease top-up
+    void grant(int quantity) {
+        give(homeStripe(), quantity);
+    }
+
+    int available() {
+        int total = 0;
+        for (int i = 0; i < stripeCount; i++) {
+            total += stripes.get(i * PADDING);
+        }
+        return total;
+    }
+
+    long drainPendingDelta() {
+        return pendingDelta.sumThenReset();
+    }
+
+    void restorePendingDelta(long delta) {
+        pendingDelta.add(delta);
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    void retire() {
+        retired = true;
+    }
+
+    private int take(int stripe, int wanted) {
+        int slot = stripe * PADDING;
+        while (true) {
+            int current = stripes.get(slot);
+            if (current == 0) {
+                return 0;
+            }
+            int taken = Math.min(current, wanted);
+            if (stripes.compareAndSet(slot, current, current - taken)) {
+                return taken;
+            }
+        }
+    }
+
+    private void give(int stripe, int quantity) {
+        if (quantity > 0) {
+            stripes.addAndGet(stripe * PADDING, quantity);
+        }
+    }
+
+    private int homeStripe() {
+        return (int) (Thread.currentThread().threadId() % stripeCount);
+    }
+}
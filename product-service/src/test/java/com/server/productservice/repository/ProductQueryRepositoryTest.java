@@ -0,0 +1,130 @@
+package com.server.productservice.repository;
+
+import com.server.productservice.domain.dto.request.ProductQueryRequest;
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.entity.Category;
+import com.server.productservice.domain.entity.Product;
+import com.server.productservice.domain.enums.ProductSortKey;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(ProductQueryRepository.class)
+class ProductQueryRepositoryTest {
+
+    private static final int CATEGORIES = 5;
+    private static final int PRODUCTS = 200;
+    private static final List<BigDecimal> BUCKETS = List.of(BigDecimal.valueOf(50), BigDecimal.valueOf(100));
+
+    @Autowired
+    private ProductQueryRepository productQueryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Product> products = new ArrayList<>();
+    private final List<Long> categoryIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int c = 0; c < CATEGORIES; c++) {
+            Category category = Category.builder().name("category-" + c).build();
+            entityManager.persist(category);
+            categoryIds.add(category.getId());
+            for (int p = c; p < PRODUCTS; p += CATEGORIES) {
+                Product product = Product.builder()
+                        .code("Q" + p)
+                        .name("product-" + p)
+                        .price(BigDecimal.valueOf(p))
+                        .stockQuantity(p % 3)
+                        .available(p % 3 > 0)
+                        .category(category)
+                        .build();
+                entityManager.persist(product);
+                products.add(product);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pageAndTotalApplyEveryFilter() {
+        ProductQueryRequest request = ProductQueryRequest.builder()
+                .categoryId(List.of(categoryIds.get(1), categoryIds.get(3)))
+                .minPrice(BigDecimal.valueOf(40))
+                .maxPrice(BigDecimal.valueOf(120))
+                .available(true)
+                .sort(ProductSortKey.PRICE_DESC)
+                .page(1)
+                .size(10)
+                .build();
+
+        ProductQueryRepository.Result result = productQueryRepository.query(request, BUCKETS);
+
+        List<Product> expected = products.stream()
+                .filter(matches(request, true, true))
+                .sorted(Comparator.comparing(Product::getPrice).reversed())
+                .toList();
+        assertThat(result.total()).isEqualTo(expected.size());
+        assertThat(result.rows())
+                .extracting(ProductResponse::getProductCode)
+                .containsExactlyElementsOf(expected.subList(10, 20).stream().map(Product::getCode).toList());
+    }
+
+    @Test
+    void eachFacetIgnoresOnlyItsOwnFilter() {
+        ProductQueryRequest request = ProductQueryRequest.builder()
+                .categoryId(List.of(categoryIds.get(2)))
+                .minPrice(BigDecimal.valueOf(60))
+                .available(true)
+                .build();
+
+        ProductQueryRepository.Result result = productQueryRepository.query(request, BUCKETS);
+
+        Map<Long, Long> expectedCategories = new HashMap<>();
+        long[] expectedBuckets = new long[BUCKETS.size() + 1];
+        for (Product product : products) {
+            if (matches(request, true, false).test(product)) {
+                expectedCategories.merge(product.getCategory().getId(), 1L, Long::sum);
+            }
+            if (matches(request, false, true).test(product)) {
+                expectedBuckets[bucket(product.getPrice())]++;
+            }
+        }
+        assertThat(result.categoryCounts()).isEqualTo(expectedCategories).hasSize(CATEGORIES);
+        assertThat(result.priceBucketCounts()).containsExactly(expectedBuckets);
+        assertThat(expectedBuckets[0]).isPositive();
+    }
+
+    private static Predicate<Product> matches(ProductQueryRequest request, boolean byPrice, boolean byCategory) {
+        return product -> (request.getAvailable() == null || request.getAvailable().equals(product.getAvailable()))
+                && (!byPrice || request.getMinPrice() == null || product.getPrice().compareTo(request.getMinPrice()) >= 0)
+                && (!byPrice || request.getMaxPrice() == null || product.getPrice().compareTo(request.getMaxPrice()) <= 0)
+                && (!byCategory || request.getCategoryId() == null
+                        || request.getCategoryId().contains(product.getCategory().getId()));
+    }
+
+    private static int bucket(BigDecimal price) {
+        for (int i = 0; i < BUCKETS.size(); i++) {
+            if (price.compareTo(BUCKETS.get(i)) < 0) {
+                return i;
+            }
+        }
+        return BUCKETS.size();
+    }
+}
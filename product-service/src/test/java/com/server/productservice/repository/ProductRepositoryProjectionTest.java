@@ -0,0 +1,103 @@
+package com.server.productservice.repository;
+
+import com.server.productservice.domain.dto.response.ProductResponse;
+import com.server.productservice.domain.entity.Category;
+import com.server.productservice.domain.entity.Product;
+import com.server.productservice.domain.mapper.ProductMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProductRepositoryProjectionTest {
+
+    private static final int CATEGORIES = 20;
+    private static final int PRODUCTS = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int c = 0; c < CATEGORIES; c++) {
+            Category category = Category.builder().name("category-" + c).build();
+            entityManager.persist(category);
+            for (int p = c; p < PRODUCTS; p += CATEGORIES) {
+                Product product = Product.builder()
+                        .code("P" + p)
+                        .name("product-" + p)
+                        .price(BigDecimal.valueOf(p, 2))
+                        .stockQuantity(p % 7)
+                        .available(p % 7 > 0)
+                        .category(category)
+                        .build();
+                entityManager.persist(product);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void entityPathIssuesOneSelectPerCategory() {
+        long statements = countStatements(() -> productRepository.findAll()
+                .stream()
+                .map(product -> product.getCategory().getName())
+                .toList());
+
+        assertThat(statements).isEqualTo(1 + CATEGORIES);
+    }
+
+    @Test
+    void projectionPathIssuesSingleSelect() {
+        long statements = countStatements(() -> productRepository.findResponsePageAfter(0L, Limit.of(PRODUCTS)));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void projectionPathReturnsSameRowsAsEntityPath() {
+        List<ProductResponse> projected = productRepository.findResponsePageAfter(0L, Limit.of(PRODUCTS));
+        entityManager.clear();
+        List<ProductResponse> mapped = productRepository.findAll(Sort.by("id"))
+                .stream()
+                .map(new ProductMapper()::mapToProductResponse)
+                .toList();
+
+        assertThat(projected).hasSize(PRODUCTS);
+        assertThat(projected).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(mapped);
+    }
+
+    private long countStatements(Supplier<?> query) {
+        statistics.clear();
+        query.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
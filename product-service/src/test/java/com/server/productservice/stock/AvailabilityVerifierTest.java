@@ -0,0 +1,149 @@
+package com.server.productservice.stock;
+
+import com.server.productservice.config.AvailabilityProperties;
+import com.server.productservice.domain.entity.Product;
+import com.server.productservice.domain.event.ProductChangedEvent;
+import com.server.productservice.repository.ProductBulkRepository;
+import com.server.productservice.repository.ProductRepository;
+import com.server.productservice.repository.ProductStockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ProductStockRepository.class, ProductBulkRepository.class})
+class AvailabilityVerifierTest {
+
+    private static final int PRODUCTS = 50;
+    // small enough that the drifted rows below fall into different chunks
+    private static final int CHUNK_SIZE = 7;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private ProductBulkRepository productBulkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<ProductChangedEvent> events = new ArrayList<>();
+    private AvailabilityVerifier verifier;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            productRepository.save(Product.builder()
+                    .code("A" + i)
+                    .name("product-" + i)
+                    .price(BigDecimal.ONE)
+                    .stockQuantity(i % 3)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        AvailabilityProperties properties = new AvailabilityProperties();
+        properties.setVerifyChunkSize(CHUNK_SIZE);
+        meterRegistry = new SimpleMeterRegistry();
+        verifier = new AvailabilityVerifier(properties, productBulkRepository, productStockRepository,
+                productRepository, new TransactionTemplate(transactionManager),
+                event -> events.add((ProductChangedEvent) event), meterRegistry);
+    }
+
+    @Test
+    void verifyRepairsDriftInEveryChunkAndNothingElse() {
+        long firstId = idOf("A0");
+        long lastId = idOf("A" + (PRODUCTS - 1));
+        List<Long> drifted = List.of(firstId, firstId + CHUNK_SIZE, firstId + 2L * CHUNK_SIZE + 3, lastId);
+        drifted.forEach(id -> jdbcTemplate.update("update products set available = not available where id = ?", id));
+        Map<Long, Long> versionsBefore = versions();
+
+        verifier.verify();
+
+        assertThat(driftCount()).isZero();
+        assertThat(events).extracting(ProductChangedEvent::productCode)
+                .containsExactlyInAnyOrderElementsOf(drifted.stream().map(this::codeOf).toList());
+        assertThat(meterRegistry.counter("product.availability.repaired").count()).isEqualTo(drifted.size());
+        versions().forEach((id, version) -> assertThat(version)
+                .isEqualTo(versionsBefore.get(id) + (drifted.contains(id) ? 1 : 0)));
+
+        events.clear();
+        verifier.verify();
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void driftOnlyCountsRowsInsideTheChunk() {
+        long id = idOf("A10");
+        jdbcTemplate.update("update products set available = not available where id = ?", id);
+
+        assertThat(productStockRepository.findAvailabilityDrift(id - 1, id)).containsExactly("A10");
+        assertThat(productStockRepository.findAvailabilityDrift(id, id + CHUNK_SIZE)).isEmpty();
+        assertThat(productStockRepository.findAvailabilityDrift(id - 1 - CHUNK_SIZE, id - 1)).isEmpty();
+    }
+
+    @Test
+    void stockWritesKeepAvailableInStep() {
+        // A2 starts with 2 units
+        assertThat(productStockRepository.decrementStock(Map.of("A2", 2))).isEmpty();
+        assertThat(available("A2")).isFalse();
+
+        productStockRepository.settleLeasedStock(Map.of("A2", -5L));
+        assertThat(available("A2")).isTrue();
+
+        productStockRepository.settleLeasedStock(Map.of("A2", 5L));
+        assertThat(available("A2")).isFalse();
+        assertThat(driftCount()).isZero();
+    }
+
+    private long idOf(String code) {
+        return jdbcTemplate.queryForObject("select id from products where code = ?", Long.class, code);
+    }
+
+    private String codeOf(long id) {
+        return jdbcTemplate.queryForObject("select code from products where id = ?", String.class, id);
+    }
+
+    private boolean available(String code) {
+        return jdbcTemplate.queryForObject("select available from products where code = ?", Boolean.class, code);
+    }
+
+    private int driftCount() {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from products where available <> (stock_quantity > 0)", Integer.class);
+    }
+
+    private Map<Long, Long> versions() {
+        Map<Long, Long> versions = new HashMap<>();
+        jdbcTemplate.query("select id, version from products", row -> {
+            versions.put(row.getLong("id"), row.getLong("version"));
+        });
+        return versions;
+    }
+}
@@ -0,0 +1,109 @@
+package com.server.productservice.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK = 100;
+    private static final int SIZE = 8;
+
+    private final HashedTimingWheel wheel = new HashedTimingWheel(TICK, SIZE, 0);
+
+    @Test
+    void entryIsDueOnlyOnceItsDeadlineHasPassed() {
+        wheel.schedule(1, 1000);
+
+        assertThat(wheel.advance(1000)).isEmpty();
+        assertThat(wheel.advance(1099)).isEmpty();
+        assertThat(wheel.advance(1100)).containsExactly(1L);
+        assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    void deadlineBehindTheWheelIsDueOnTheNextTick() {
+        wheel.advance(1000);
+
+        wheel.schedule(1, 50);
+        wheel.schedule(2, 1000);
+
+        assertThat(wheel.advance(1099)).isEmpty();
+        assertThat(wheel.advance(1100)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void entryMoreThanOneTurnAwayWaitsForItsOwnTick() {
+        long deadline = 2 * SIZE * TICK + 50;
+        wheel.schedule(1, deadline);
+
+        // its bucket is visited twice before the entry's tick comes round
+        for (long now = TICK; now <= deadline; now += TICK) {
+            assertThat(wheel.advance(now)).isEmpty();
+        }
+        assertThat(wheel.pending()).isEqualTo(1);
+        assertThat(wheel.advance(deadline + TICK)).containsExactly(1L);
+    }
+
+    @Test
+    void stalledWheelCatchesUpInOnePass() {
+        for (long id = 0; id < 100; id++) {
+            wheel.schedule(id, id * 37);
+        }
+
+        long[] due = wheel.advance(100 * SIZE * TICK);
+
+        assertThat(due).hasSize(100).doesNotHaveDuplicates();
+        assertThat(wheel.pending()).isZero();
+        assertThat(wheel.advance(101 * SIZE * TICK)).isEmpty();
+    }
+
+    @Test
+    void entriesScheduledWhileTheWheelAdvancesAreEachDueExactlyOnce() throws InterruptedException {
+        int threads = 4;
+        int perThread = 20_000;
+        AtomicLong clock = new AtomicLong();
+        List<Thread> schedulers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long firstId = (long) t * perThread;
+            Thread scheduler = new Thread(() -> {
+                for (long id = firstId; id < firstId + perThread; id++) {
+                    // deadlines from a few ticks back to a few turns ahead of the advancing clock
+                    long offset = ThreadLocalRandom.current().nextLong(-3 * TICK, 3 * SIZE * TICK);
+                    wheel.schedule(id, clock.get() + offset);
+                }
+            });
+            schedulers.add(scheduler);
+            scheduler.start();
+        }
+
+        Set<Long> due = new HashSet<>();
+        List<Long> duplicates = new ArrayList<>();
+        while (schedulers.stream().anyMatch(Thread::isAlive)) {
+            for (long id : wheel.advance(clock.addAndGet(TICK / 4))) {
+                if (!due.add(id)) {
+                    duplicates.add(id);
+                }
+            }
+        }
+        for (Thread scheduler : schedulers) {
+            scheduler.join();
+        }
+        for (long id : wheel.advance(clock.get() + 4 * SIZE * TICK)) {
+            if (!due.add(id)) {
+                duplicates.add(id);
+            }
+        }
+
+        assertThat(duplicates).isEmpty();
+        assertThat(due).hasSize(threads * perThread);
+        assertThat(wheel.pending()).isZero();
+    }
+}
@@ -0,0 +1,147 @@
+package com.server.productservice.stock;
+
+import com.server.productservice.config.HotSkuProperties;
+import com.server.productservice.domain.entity.Product;
+import com.server.productservice.repository.ProductRepository;
+import com.server.productservice.repository.ProductStockRepository;
+import com.server.productservice.repository.StockHoldRepository;
+import com.server.productservice.repository.StockLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// Two registries with different owners stand in for two product-service instances.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(ProductStockRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HotStockLeaseTest {
+
+    private static final String CODE = "HOT";
+    private static final int STOCK = 150;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private StockLeaseRepository stockLeaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private HotStockRegistry first;
+    private HotStockRegistry second;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.save(Product.builder()
+                .code(CODE)
+                .name("hot product")
+                .price(BigDecimal.TEN)
+                .stockQuantity(STOCK)
+                .build());
+        first = registry("instance-1");
+        second = registry("instance-2");
+        first.reconcile();
+        second.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockLeaseRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void instancesTogetherSellNoMoreThanTheStock() {
+        assertThat(first.available(CODE) + second.available(CODE)).isEqualTo(STOCK);
+        assertThat(sellAll(first) + sellAll(second)).isEqualTo(STOCK);
+
+        first.flush();
+        second.flush();
+
+        assertThat(stock()).isZero();
+        assertThat(held()).isZero();
+        assertThat(first.available(CODE) + second.available(CODE)).isZero();
+    }
+
+    @Test
+    void expiredLeaseGoesBackToThePoolAndItsOwnerSettlesFromWhatIsLeft() {
+        assertThat(first.reserve(Map.of(CODE, 10))).isTrue();
+        jdbcTemplate.update("update stock_leases set expires_at = ? where owner = ?",
+                LocalDateTime.now().minusMinutes(1), "instance-1");
+
+        second.releaseExpiredLeases();
+        assertThat(held()).isEqualTo(STOCK - 100);
+        first.flush();
+
+        assertThat(stock()).isEqualTo(STOCK - 10);
+        assertThat(held()).isEqualTo(STOCK - 10);
+        assertThat(first.available(CODE) + second.available(CODE)).isEqualTo(STOCK - 10);
+    }
+
+    @Test
+    void shutdownHandsTheUnsoldUnitsBack() {
+        assertThat(first.reserve(Map.of(CODE, 10))).isTrue();
+
+        first.shutdown();
+
+        assertThat(stock()).isEqualTo(STOCK - 10);
+        assertThat(held()).isEqualTo(second.available(CODE));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from stock_leases where owner = ?", Integer.class,
+                "instance-1")).isZero();
+    }
+
+    private HotStockRegistry registry(String owner) {
+        HotSkuProperties properties = new HotSkuProperties();
+        properties.setCodes(List.of(CODE));
+        properties.setStripes(2);
+        properties.setOwner(owner);
+        properties.setLeaseSize(100);
+        return new HotStockRegistry(properties, productRepository, productStockRepository, stockHoldRepository,
+                stockLeaseRepository, new TransactionTemplate(transactionManager),
+                mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+    }
+
+    private static int sellAll(HotStockRegistry registry) {
+        int sold = 0;
+        while (registry.reserve(Map.of(CODE, 1))) {
+            sold++;
+        }
+        return sold;
+    }
+
+    private int stock() {
+        return jdbcTemplate.queryForObject("select stock_quantity from products where code = ?", Integer.class, CODE);
+    }
+
+    private int held() {
+        return jdbcTemplate.queryForObject("select held_quantity from products where code = ?", Integer.class, CODE);
+    }
+}
@@ -0,0 +1,255 @@
+package com.server.productservice.stock;
+
+import com.server.productservice.config.HotSkuProperties;
+import com.server.productservice.domain.entity.StockHold;
+import com.server.productservice.domain.entity.StockLease;
+import com.server.productservice.domain.projection.ProductStockView;
+import com.server.productservice.repository.ProductRepository;
+import com.server.productservice.repository.ProductStockRepository;
+import com.server.productservice.repository.StockHoldRepository;
+import com.server.productservice.repository.StockLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotStockRegistryTest {
+
+    private static final String OWNER = "instance-1";
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductStockRepository productStockRepository = mock(ProductStockRepository.class);
+    private final StockHoldRepository stockHoldRepository = mock(StockHoldRepository.class);
+    private final StockLeaseRepository stockLeaseRepository = mock(StockLeaseRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // the lease rows and unheld stock the repositories would see
+    private final Map<String, StockLease> leaseRows = new HashMap<>();
+    private int unheld = 1000;
+
+    private HotStockRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        HotSkuProperties properties = new HotSkuProperties();
+        properties.setCodes(List.of("HOT"));
+        properties.setStripes(4);
+        properties.setResetLockTimeoutMs(100);
+        properties.setOwner(OWNER);
+        properties.setLeaseSize(100);
+        stubStock();
+        stubLeases();
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        registry = new HotStockRegistry(properties, productRepository, productStockRepository, stockHoldRepository,
+                stockLeaseRepository, transactionTemplate, mock(ApplicationEventPublisher.class), meterRegistry);
+        registry.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reconcileReleasesHoldsAndOldLeasesAndLeasesASlice() {
+        List<StockHold> holds = List.of(
+                StockHold.builder().cartId(1L).productCode("HOT").quantity(3).build(),
+                StockHold.builder().cartId(2L).productCode("HOT").quantity(4).build());
+        when(stockHoldRepository.findForUpdateByProductCodeIn(List.of("HOT"))).thenReturn(holds);
+
+        registry.reconcile();
+
+        verify(stockHoldRepository).deleteAllInBatch(holds);
+        verify(productStockRepository).releaseHeld(Map.of("HOT", 7));
+        // the lease taken by the first reconcile went back before the new one was taken
+        verify(productStockRepository).releaseHeld(Map.of("HOT", 100));
+        assertThat(registry.available("HOT")).isEqualTo(100);
+        assertThat(leaseRows.get("HOT").getQuantity()).isEqualTo(100);
+        assertThat(registry.acceptsHolds("HOT")).isFalse();
+        assertThat(registry.acceptsHolds("COLD")).isTrue();
+    }
+
+    @Test
+    void counterNeverSellsMoreThanItsLease() {
+        unheld = 0;
+
+        assertThat(registry.reserve(Map.of("HOT", 100))).isTrue();
+        assertThat(registry.reserve(Map.of("HOT", 1))).isFalse();
+        registry.flush();
+
+        verify(productStockRepository).settleLeasedStock(Map.of("HOT", 100L));
+        assertThat(leaseRows.get("HOT").getQuantity()).isZero();
+        assertThat(registry.available("HOT")).isZero();
+    }
+
+    @Test
+    void flushTopsTheLeaseUpOnceHalfOfItIsSold() {
+        assertThat(registry.reserve(Map.of("HOT", 49))).isTrue();
+        registry.flush();
+        assertThat(registry.available("HOT")).isEqualTo(51);
+
+        assertThat(registry.reserve(Map.of("HOT", 2))).isTrue();
+        registry.flush();
+
+        assertThat(registry.available("HOT")).isEqualTo(100);
+        assertThat(leaseRows.get("HOT").getQuantity()).isEqualTo(100);
+    }
+
+    @Test
+    void flushRefusesADeltaThatWouldTakeStockBelowZero() {
+        assertThat(registry.reserve(Map.of("HOT", 5))).isTrue();
+        when(productStockRepository.settleLeasedStock(anyMap())).thenReturn(List.of("HOT"));
+
+        registry.flush();
+
+        assertThat(meterRegistry.counter("product.hot-sku.refused.units").count()).isEqualTo(5);
+        // the old lease went back and the counter starts again from a fresh one
+        verify(productStockRepository).releaseHeld(Map.of("HOT", 100));
+        assertThat(registry.available("HOT")).isEqualTo(100);
+    }
+
+    @Test
+    void unitsSoldAfterTheLeaseLapsedComeOutOfTheUnheldStock() {
+        assertThat(registry.reserve(Map.of("HOT", 5))).isTrue();
+        leaseRows.clear();
+
+        registry.flush();
+
+        verify(productStockRepository).decrementStock(Map.of("HOT", 5));
+        verify(productStockRepository, never()).settleLeasedStock(Map.of("HOT", 5L));
+        assertThat(registry.available("HOT")).isEqualTo(100);
+    }
+
+    @Test
+    void flushSkipsACodeWhileItsResetIsInFlight() throws InterruptedException {
+        assertThat(registry.reserve(Map.of("HOT", 5))).isTrue();
+
+        TransactionSynchronizationManager.initSynchronization();
+        registry.resetAfterCommit("HOT");
+        assertThat(leaseRows).isEmpty();
+        flushOnSchedulerThread();
+        verify(productStockRepository, never()).settleLeasedStock(Map.of("HOT", 5L));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(registry.available("HOT")).isZero();
+
+        // the units sold before the reset are replaced by it, not flushed onto it;
+        // the counter is leased again from the new stock
+        registry.flush();
+        verify(productStockRepository, never()).settleLeasedStock(Map.of("HOT", 5L));
+        assertThat(registry.available("HOT")).isEqualTo(100);
+    }
+
+    @Test
+    void rolledBackResetKeepsTheCounterAndReleasesTheCode() {
+        assertThat(registry.reserve(Map.of("HOT", 5))).isTrue();
+
+        Map<String, StockLease> committed = new HashMap<>(leaseRows);
+        TransactionSynchronizationManager.initSynchronization();
+        registry.resetAfterCommit("HOT");
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        // the handed back lease comes back with the rollback
+        leaseRows.putAll(committed);
+
+        assertThat(registry.available("HOT")).isEqualTo(95);
+        registry.flush();
+        verify(productStockRepository).settleLeasedStock(Map.of("HOT", 5L));
+    }
+
+    @Test
+    void failedFlushRestoresTheDeltaForTheNextCycle() {
+        assertThat(registry.reserve(Map.of("HOT", 3))).isTrue();
+        when(productStockRepository.settleLeasedStock(anyMap()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of());
+
+        registry.flush();
+        registry.flush();
+
+        verify(productStockRepository, times(2)).settleLeasedStock(Map.of("HOT", 3L));
+    }
+
+    private void stubStock() {
+        ProductStockView view = mock(ProductStockView.class);
+        when(view.getCode()).thenReturn("HOT");
+        when(productRepository.findStockByCodeIn(any())).thenReturn(List.of(view));
+        when(productStockRepository.leaseStock(eq("HOT"), anyInt())).thenAnswer(invocation -> {
+            int granted = Math.min(invocation.<Integer>getArgument(1), unheld);
+            unheld -= granted;
+            return granted;
+        });
+    }
+
+    // lease rows are only changed through the repository, so the test sees what a flush saved
+    private void stubLeases() {
+        when(stockLeaseRepository.findForUpdate(eq(OWNER), anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(1).stream()
+                        .filter(leaseRows::containsKey)
+                        .map(leaseRows::get)
+                        .toList());
+        when(stockLeaseRepository.findForUpdate(OWNER)).thenAnswer(invocation -> List.copyOf(leaseRows.values()));
+        when(stockLeaseRepository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<Iterable<StockLease>>getArgument(0).forEach(lease -> leaseRows.put(lease.getProductCode(),
+                    StockLease.builder().productCode(lease.getProductCode()).owner(lease.getOwner())
+                            .quantity(lease.getQuantity()).expiresAt(lease.getExpiresAt()).build()));
+            return null;
+        });
+        doAnswer(invocation -> {
+            invocation.<Iterable<StockLease>>getArgument(0).forEach(lease -> leaseRows.remove(lease.getProductCode()));
+            return null;
+        }).when(stockLeaseRepository).deleteAllInBatch(any());
+        doAnswer(invocation -> {
+            invocation.<Map<String, Integer>>getArgument(0).values().forEach(units -> unheld += units);
+            return null;
+        }).when(productStockRepository).releaseHeld(anyMap());
+    }
+
+    private void flushOnSchedulerThread() throws InterruptedException {
+        Thread scheduler = new Thread(registry::flush);
+        scheduler.start();
+        scheduler.join();
+    }
+
+    // what the transaction manager does once the surrounding transaction ends
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
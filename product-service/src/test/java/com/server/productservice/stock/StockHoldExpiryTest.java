@@ -0,0 +1,126 @@
+package com.server.productservice.stock;
+
+import com.server.productservice.config.StockHoldProperties;
+import com.server.productservice.domain.entity.Product;
+import com.server.productservice.domain.entity.StockHold;
+import com.server.productservice.repository.ProductRepository;
+import com.server.productservice.repository.ProductStockRepository;
+import com.server.productservice.repository.StockHoldRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Commits like the real callers do, so holds are put on the wheel directly rather than after a
+// test transaction that never commits.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(ProductStockRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockHoldExpiryTest {
+
+    private static final String CODE = "HELD";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StockHoldProperties properties;
+    private StockHoldExpiry expiry;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.save(Product.builder()
+                .code(CODE)
+                .name("held product")
+                .price(BigDecimal.TEN)
+                .stockQuantity(10)
+                .build());
+        properties = new StockHoldProperties();
+        expiry = new StockHoldExpiry(properties, stockHoldRepository, productStockRepository,
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockHoldRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void dueHoldIsExpiredAndItsUnitsGoBack() {
+        StockHold hold = placeHold(3, LocalDateTime.now().minusSeconds(1));
+
+        assertThat(expiry.expireDue(nextTick())).isEqualTo(1);
+
+        assertThat(stockHoldRepository.existsById(hold.getId())).isFalse();
+        assertThat(heldQuantity()).isZero();
+    }
+
+    @Test
+    void renewedHoldIsNotExpiredByItsEarlierEntry() {
+        StockHold hold = placeHold(3, LocalDateTime.now().minusSeconds(1));
+        hold.setExpiresAt(LocalDateTime.now().plusMinutes(15));
+        stockHoldRepository.save(hold);
+
+        assertThat(expiry.expireDue(nextTick())).isZero();
+
+        assertThat(stockHoldRepository.existsById(hold.getId())).isTrue();
+        assertThat(heldQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    void releasedHoldIsNotReleasedAgain() {
+        StockHold hold = placeHold(3, LocalDateTime.now().minusSeconds(1));
+        stockHoldRepository.deleteById(hold.getId());
+        productStockRepository.releaseHeld(Map.of(CODE, 3));
+
+        assertThat(expiry.expireDue(nextTick())).isZero();
+
+        assertThat(heldQuantity()).isZero();
+    }
+
+    private StockHold placeHold(int quantity, LocalDateTime expiresAt) {
+        assertThat(productStockRepository.adjustHeld(CODE, quantity)).isTrue();
+        StockHold hold = stockHoldRepository.save(StockHold.builder()
+                .cartId(1L)
+                .productCode(CODE)
+                .quantity(quantity)
+                .expiresAt(expiresAt)
+                .build());
+        expiry.scheduleAfterCommit(hold.getId(), hold.getExpiresAt());
+        return hold;
+    }
+
+    private long nextTick() {
+        return System.currentTimeMillis() + properties.getTick().toMillis();
+    }
+
+    private int heldQuantity() {
+        return jdbcTemplate.queryForObject("select held_quantity from products where code = ?", Integer.class, CODE);
+    }
+}
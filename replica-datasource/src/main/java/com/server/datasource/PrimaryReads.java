@@ -0,0 +1,32 @@
+package com.server.datasource;
+
+import java.util.function.Supplier;
+
+// Reads whose result outlives the request, like the load of a shared cache entry, must not
+// come from a replica that may not have replayed the latest write yet: every client would be
+// served that value until it expires, not just the one that wrote. Read-only connections
+// fetched inside get() come from the primary. A transaction fetches its connection on its
+// first statement, so that statement has to run inside.
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T get(Supplier<T> reads) {
+        if (ACTIVE.get() != null) {
+            return reads.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
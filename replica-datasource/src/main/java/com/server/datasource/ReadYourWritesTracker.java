@@ -0,0 +1,63 @@
+package com.server.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+// After a client's write commits, its reads stay on the primary until the replica has had
+// time to replay it: the measured lag plus a margin. The deadline travels in a cookie so
+// it holds across requests and instances; reads later in the same request see it directly.
+@RequiredArgsConstructor
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    public static final String COOKIE = "primary-reads-until";
+
+    private static final ThreadLocal<RequestState> CURRENT = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReplicaDataSourceProperties properties;
+
+    void begin(HttpServletResponse response, long primaryUntil) {
+        CURRENT.set(new RequestState(response, primaryUntil));
+    }
+
+    void end() {
+        CURRENT.remove();
+    }
+
+    boolean requiresPrimary() {
+        RequestState state = CURRENT.get();
+        return state != null && System.currentTimeMillis() < state.primaryUntil;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        RequestState state = CURRENT.get();
+        if (state == null || commitFailure != null || transaction.isReadOnly()) {
+            return;
+        }
+
+        long window = lagMonitor.currentLag().plus(properties.getReadYourWritesMargin()).toMillis();
+        state.primaryUntil = Math.max(state.primaryUntil, System.currentTimeMillis() + window);
+        if (!state.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(state.primaryUntil));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (window + 999) / 1000));
+            state.response.addCookie(cookie);
+        }
+    }
+
+    private static final class RequestState {
+
+        private final HttpServletResponse response;
+        private long primaryUntil;
+
+        private RequestState(HttpServletResponse response, long primaryUntil) {
+            this.response = response;
+            this.primaryUntil = primaryUntil;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.server.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    private int maximumPoolSize = 10;
+
+    // read-only transactions go to the primary while the replica is further behind than this
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    // seconds the replica is behind; zero when it has replayed everything it received
+    private String lagQuery = """
+            select coalesce(case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                                 else extract(epoch from now() - pg_last_xact_replay_timestamp()) end, 0)
+            """;
+
+    // added to the measured lag when pinning a client to the primary after its write
+    private Duration readYourWritesMargin = Duration.ofSeconds(1);
+}
@@ -0,0 +1,81 @@
+package com.server.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class ReplicaLagMonitor implements InitializingBean, DisposableBean {
+
+    private final JdbcTemplate replica;
+    private final ReplicaDataSourceProperties properties;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean healthy;
+    private volatile Duration lag = Duration.ZERO;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaDataSourceProperties properties, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.properties = properties;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lag.toMillis() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        check();
+        long interval = properties.getLagCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isReplicaUsable() {
+        return healthy && lag.compareTo(properties.getMaxLag()) <= 0;
+    }
+
+    public Duration currentLag() {
+        return lag;
+    }
+
+    // called when a connection could not be obtained, so reads fall back before the next check
+    void markUnavailable(Exception cause) {
+        if (healthy) {
+            log.warn("Replica unavailable, routing reads to the primary: {}", cause.getMessage());
+        }
+        healthy = false;
+    }
+
+    void check() {
+        try {
+            Double seconds = replica.queryForObject(properties.getLagQuery(), Double.class);
+            lag = Duration.ofMillis(Math.round((seconds == null ? 0 : seconds) * 1000));
+            if (!healthy) {
+                log.info("Replica available, lag {} ms", lag.toMillis());
+            }
+            healthy = true;
+        } catch (DataAccessException e) {
+            markUnavailable(e);
+        }
+    }
+}